@@ -0,0 +1,82 @@
+package me.mrfunny.interactionapi.internal.cache;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+Scheduling the expiry of 100k cached responses: one task per response in the delay heap of the executor,
+as the cache did before, against the timing wheel. Besides the time, queuedTasks reports the size of the executor heap
+once all entries are scheduled, for every iteration (the summary adds the iterations up)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(ExpiryWheelBenchmark.ENTRIES)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ExpiryWheelBenchmark {
+    static final int ENTRIES = 100_000;
+
+    private final Object[] values = new Object[ENTRIES];
+    private ScheduledThreadPoolExecutor executor;
+    private ExpiryWheel<Object> wheel;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SchedulerHeap {
+        public long queuedTasks;
+    }
+
+    @Setup(Level.Trial)
+    public void createValues() {
+        for(int i = 0; i < ENTRIES; i++) {
+            values[i] = new Object();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        executor = new ScheduledThreadPoolExecutor(1);
+        wheel = new ExpiryWheel<>(executor, 1000, value -> {});
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Object scheduleOnExecutor(SchedulerHeap heap) {
+        Object last = null;
+        for(Object value : values) {
+            last = executor.schedule(() -> value.hashCode(), 300, TimeUnit.SECONDS);
+        }
+        heap.queuedTasks = executor.getQueue().size();
+        return last;
+    }
+
+    @Benchmark
+    public ExpiryWheel<Object> scheduleOnWheel(SchedulerHeap heap) {
+        for(Object value : values) {
+            wheel.schedule(value, 300, TimeUnit.SECONDS);
+        }
+        heap.queuedTasks = executor.getQueue().size();
+        return wheel;
+    }
+}
@@ -0,0 +1,66 @@
+package me.mrfunny.interactionapi.internal.data.command;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/*
+Calling a slash command method with its arguments: Method.invoke with the boxed arguments as the executor did before,
+against the prebuilt handle reading the typed slots of CommandArguments
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CommandInvokerBenchmark {
+    public static class Handler {
+        long received;
+
+        private void execute(Object invocation, String reason, long amount, boolean silent) {
+            received += reason.length() + amount + (silent ? 1 : 0) + (invocation == null ? 0 : 1);
+        }
+    }
+
+    private final Handler handler = new Handler();
+    private final Object invocation = new Object();
+    private Method method;
+    private MethodHandle invoker;
+    private long amount;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        method = Handler.class.getDeclaredMethod("execute", Object.class, String.class, long.class, boolean.class);
+        invoker = CommandArguments.createInvoker(method, handler);
+    }
+
+    @Benchmark
+    public long reflection() throws Exception {
+        method.setAccessible(true);
+        method.invoke(handler, new Object[] {invocation, "spam", amount++, true});
+        return handler.received;
+    }
+
+    @Benchmark
+    public long methodHandle() throws Throwable {
+        CommandArguments arguments = new CommandArguments(4);
+        arguments.set(0, invocation);
+        arguments.set(1, "spam");
+        arguments.setLong(2, amount++);
+        arguments.setBoolean(3, true);
+        invoker.invokeExact(arguments);
+        return handler.received;
+    }
+}
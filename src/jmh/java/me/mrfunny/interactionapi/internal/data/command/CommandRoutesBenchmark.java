@@ -0,0 +1,91 @@
+package me.mrfunny.interactionapi.internal.data.command;
+
+import me.mrfunny.interactionapi.commands.slash.SubcommandGroupData;
+import me.mrfunny.interactionapi.internal.InteractionPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+Finding the executor of a slash command interaction: one lookup in the route table against the walk through the command,
+group and subcommand maps which was used before
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CommandRoutesBenchmark {
+    private final HashMap<String, RegisteredCommand> commands = new HashMap<>();
+    private final CommandRoutes routes = new CommandRoutes();
+    private String[][] interactions;
+    private int next;
+
+    private static CommandExecutor executor(RegisteredCommand source, String name, SubcommandGroupData group) {
+        return new CommandExecutor(source, name, group, "", null, null, 0, InteractionPipeline.Mode.OFFLOADED);
+    }
+
+    @Setup
+    public void setUp() {
+        ArrayList<String[]> paths = new ArrayList<>();
+        for(int c = 0; c < 20; c++) {
+            String name = "command" + c;
+            RegisteredCommand command = new RegisteredCommand(() -> name, name, true);
+            for(int s = 0; s < 4; s++) {
+                command.addSubcommand(executor(command, "sub" + s, null));
+                paths.add(new String[] {name, null, "sub" + s});
+            }
+            for(int g = 0; g < 2; g++) {
+                SubcommandGroupData group = new SubcommandGroupData("group" + g, null);
+                HashMap<String, CommandExecutor> executors = new HashMap<>();
+                for(int s = 0; s < 3; s++) {
+                    executors.put("sub" + s, executor(command, "sub" + s, group));
+                    paths.add(new String[] {name, "group" + g, "sub" + s});
+                }
+                command.addGroup(new RegisteredGroup(group, executors));
+            }
+            commands.put(name, command);
+            routes.add(command);
+        }
+        interactions = paths.toArray(new String[0][]);
+    }
+
+    private String[] nextInteraction() {
+        String[] interaction = interactions[next];
+        next = next + 1 == interactions.length ? 0 : next + 1;
+        return interaction;
+    }
+
+    @Benchmark
+    public CommandExecutor nestedMaps() {
+        String[] interaction = nextInteraction();
+        RegisteredCommand command = commands.get(interaction[0]);
+        if(command == null) return null;
+        if(interaction[2] != null) {
+            if(interaction[1] != null) {
+                RegisteredGroup group = command.getGroups().get(interaction[1]);
+                return group.executors().get(interaction[2]);
+            }
+            return command.getSubcommand(interaction[2]);
+        }
+        return command.getMainExecutor();
+    }
+
+    @Benchmark
+    public CommandExecutor routeTable() {
+        String[] interaction = nextInteraction();
+        return routes.get(interaction[0], interaction[1], interaction[2]);
+    }
+}
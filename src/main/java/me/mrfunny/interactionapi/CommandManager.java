@@ -1,7 +1,12 @@
 package me.mrfunny.interactionapi;
 
+import me.mrfunny.interactionapi.internal.AdmissionControl;
 import me.mrfunny.interactionapi.internal.Command;
+import me.mrfunny.interactionapi.internal.CommandRegistry;
+import me.mrfunny.interactionapi.internal.cache.ResponseCache;
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.guild.GuildJoinEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.MessageContextInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
@@ -10,24 +15,109 @@ import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.GenericSelectMenuInteractionEvent;
 import net.dv8tion.jda.api.interactions.components.selections.SelectMenu;
 
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public interface CommandManager {
+    /**
+     * Registers the command, it's uploaded to Discord together with the other commands registered shortly before or after it
+     */
     void registerCommand(Command commandInstance);
+
+    /**
+     * Uploads the registered commands right away. Only the scopes (global and every guild) where the commands differ
+     * from the ones Discord has are overwritten.
+     * <p>
+     * Every scope is overwritten as a whole: commands of the bot which were not registered through this manager,
+     * for example the ones created with JDA directly, are deleted from Discord. Guilds which got commands before
+     * according to the state file get an empty list once no guild commands are registered anymore
+     */
+    CompletableFuture<Void> updateCommands();
+
+    /**
+     * Keeps the hashes of the uploaded commands in the file, so the scopes where nothing changed since the last start
+     * are skipped without any request to Discord. Null disables it, which is the default
+     */
+    void setCommandStateFile(Path file);
+
+    /**
+     * @return Registry which uploads the commands, with the settings of the rollout to the guilds
+     */
+    CommandRegistry getCommandRegistry();
+
+    /**
+     * Uploads the commands of the guilds to the guild the bot has joined
+     */
+    void processGuildJoin(GuildJoinEvent event);
+
+    /**
+     * Forgets the commands uploaded to the guild the bot has left, so they are uploaded again when it joins back
+     */
+    void processGuildLeave(GuildLeaveEvent event);
     void setDebug(boolean debug);
     boolean isDebug();
     boolean processCommandInteraction(SlashCommandInteractionEvent event);
     boolean processContextInteraction(UserContextInteractionEvent event);
     boolean processContextInteraction(MessageContextInteractionEvent event);
 
+    /**
+     * Creates the manager of the JDA instance. Has to be called before any button, modal or select menu is created for the users
+     * of this JDA instance, because they are cached by its manager. The manager is forgotten when the JDA instance shuts down
+     * @return New manager, or the one which already manages the JDA instance
+     */
     static CommandManager manage(JDA jda) {
-        return new CommandManagerImpl(jda);
+        return CommandManagerImpl.managers.computeIfAbsent(jda, CommandManagerImpl::new);
+    }
+
+    /**
+     * @return Manager which was created for the JDA instance with {@link #manage(JDA)}
+     * @throws IllegalStateException If the JDA instance is not managed, or it was already shut down
+     */
+    static CommandManager of(JDA jda) {
+        CommandManager manager = CommandManagerImpl.managers.get(jda);
+        if(manager == null) {
+            throw new IllegalStateException("JDA instance is not managed by any CommandManager, use CommandManager.manage(jda) first");
+        }
+        return manager;
     }
 
+    ResponseCache getResponseCache();
+
     boolean processModalInteraction(ModalInteractionEvent event);
 
+    /**
+     * Chooses where the handlers of the interactions run, {@link ExecutionStrategy#VIRTUAL_THREADS} by default
+     */
+    void setExecutionStrategy(ExecutionStrategy strategy);
+
+    /**
+     * Runs the handlers of the interactions on the custom executor
+     */
+    void setHandlerExecutor(Executor executor);
+
+    Executor getHandlerExecutor();
+
+    /**
+     * Defers the interactions which weren't answered by their handler in the time since they were created, so the handler
+     * doesn't hit the 3 seconds limit of Discord. Later responses are sent through the hook. 0 disables it, which is the default.
+     * Same as {@link AdmissionControl#setAutoDeferAfter(long, TimeUnit)}, see it for how the interactions are deferred
+     */
+    void setAutoDeferDeadline(long amount, TimeUnit unit);
+
+    long getAutoDeferDeadline();
+
+    /**
+     * @return Limits of the queue of the offloaded handlers, with the counters of the queued, shed and automatically deferred interactions
+     */
+    AdmissionControl getAdmissionControl();
+
+    /*
+    Used for the scheduled internal work like the expiry of the cached responses, handlers run on the handler executor
+     */
     ScheduledExecutorService asyncExecutor = Executors.newScheduledThreadPool(3);
 
     static ScheduledExecutorService getAsyncExecutor() {
@@ -1,5 +1,7 @@
 package me.mrfunny.interactionapi;
 
+import net.dv8tion.jda.api.events.guild.GuildJoinEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.MessageContextInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
@@ -18,6 +20,16 @@ public class CommandManagerAdapter extends ListenerAdapter {
     public CommandManagerAdapter(CommandManager manager) {
         this.manager = manager;
     }
+    @Override
+    public void onGuildJoin(@NotNull GuildJoinEvent event) {
+        manager.processGuildJoin(event);
+    }
+
+    @Override
+    public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+        manager.processGuildLeave(event);
+    }
+
     @Override
     public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
         manager.processCommandInteraction(event);
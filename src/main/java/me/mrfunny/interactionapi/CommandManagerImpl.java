@@ -6,13 +6,18 @@ import me.mrfunny.interactionapi.commands.context.ContextCommandInvocation;
 import me.mrfunny.interactionapi.commands.context.MessageContextCommand;
 import me.mrfunny.interactionapi.commands.context.UserContextCommand;
 import me.mrfunny.interactionapi.commands.slash.SlashCommand;
+import me.mrfunny.interactionapi.commands.slash.SlashCommandInvocation;
+import me.mrfunny.interactionapi.internal.AdmissionControl;
 import me.mrfunny.interactionapi.internal.Command;
+import me.mrfunny.interactionapi.internal.CommandRegistry;
 import me.mrfunny.interactionapi.internal.ComponentInteractionInvocation;
 import me.mrfunny.interactionapi.internal.InteractionInvocation;
+import me.mrfunny.interactionapi.internal.InteractionPipeline;
 import me.mrfunny.interactionapi.internal.cache.ResponseCache;
+import me.mrfunny.interactionapi.internal.cache.StatelessResponses;
 import me.mrfunny.interactionapi.internal.data.command.CommandExecutor;
+import me.mrfunny.interactionapi.internal.data.command.CommandRoutes;
 import me.mrfunny.interactionapi.internal.data.command.RegisteredCommand;
-import me.mrfunny.interactionapi.internal.data.command.RegisteredGroup;
 import me.mrfunny.interactionapi.internal.wrapper.JdaCommandWrapper;
 import me.mrfunny.interactionapi.internal.wrapper.JdaModalWrapper;
 import me.mrfunny.interactionapi.internal.wrapper.resolver.ContextCommandResolver;
@@ -20,7 +25,10 @@ import me.mrfunny.interactionapi.internal.wrapper.resolver.SlashCommandResolver;
 import me.mrfunny.interactionapi.menus.SelectMenuInvocation;
 import me.mrfunny.interactionapi.modals.Modal;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.guild.GuildJoinEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.session.ShutdownEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.MessageContextInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
@@ -28,19 +36,49 @@ import net.dv8tion.jda.api.events.interaction.command.UserContextInteractionEven
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.GenericSelectMenuInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.components.selections.SelectMenu;
 
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 class CommandManagerImpl implements CommandManager {
+    static final ConcurrentHashMap<JDA, CommandManagerImpl> managers = new ConcurrentHashMap<>();
     private final JDA jda;
+    private final ResponseCache responseCache;
     private boolean debug;
+    private volatile Executor handlerExecutor = ExecutionStrategy.VIRTUAL_THREADS.getExecutor();
+    private final InteractionPipeline pipeline = new InteractionPipeline(this);
 
     public CommandManagerImpl(JDA jda) {
         this.jda = jda;
+        this.responseCache = new ResponseCache(jda, CommandManager.getAsyncExecutor());
+        this.registry = new CommandRegistry(jda);
+        // registered by the manager itself, so it's forgotten even if the CommandManagerAdapter is not used
+        jda.addEventListener((EventListener) event -> {
+            if(event instanceof ShutdownEvent) {
+                shutdown();
+            }
+        });
+    }
+
+    /*
+    Forgets the manager of the JDA instance which was shut down and stops its scheduled work, so it can be collected
+     */
+    private void shutdown() {
+        managers.remove(jda, this);
+        registry.cancelScheduledUpdate();
+        responseCache.shutdown();
+        pipeline.getAdmissionControl().shutdown();
     }
 
     private final HashMap<String, RegisteredCommand> slashCommands = new HashMap<>();
+    private final CommandRoutes routes = new CommandRoutes();
+    private final CommandRegistry registry;
     private final HashMap<String, MessageContextCommand> messageContextCommands = new HashMap<>();
     private final HashMap<String, UserContextCommand> userContextCommands = new HashMap<>();
 
@@ -48,6 +86,7 @@ class CommandManagerImpl implements CommandManager {
     public void registerCommand(Command commandInstance) {
         if(commandInstance instanceof ContextCommand<?> contextCommand) {
             new ContextCommandResolver(contextCommand, userContextCommands, messageContextCommands);
+            registry.add(contextCommand, Commands.context(contextCommand.getType(), contextCommand.name()).setGuildOnly(contextCommand.isGuildOnly()));
             return;
         }
         SlashCommandResolver resolver = new SlashCommandResolver((SlashCommand) commandInstance);
@@ -63,15 +102,34 @@ class CommandManagerImpl implements CommandManager {
             throw new RuntimeException("\nError while registering command " + command.getCommandBlueprint().getClass().getName() + ": " + e.getMessage());
         }
 
-        if(command.isGlobal()) {
-            jda.upsertCommand(jdaCommand).queue();
-        } else {
-            for(Guild guild : jda.getGuilds()) {
-                if(!command.getCommandBlueprint().shouldRegisterToGuild().apply(guild)) continue;
-                guild.upsertCommand(jdaCommand).queue();
-            }
-        }
+        registry.add(command.getCommandBlueprint(), jdaCommand);
         slashCommands.put(command.getName(), command);
+        routes.add(command);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateCommands() {
+        return registry.update();
+    }
+
+    @Override
+    public void setCommandStateFile(Path file) {
+        registry.setStateFile(file);
+    }
+
+    @Override
+    public CommandRegistry getCommandRegistry() {
+        return registry;
+    }
+
+    @Override
+    public void processGuildJoin(GuildJoinEvent event) {
+        registry.onGuildJoin(event.getGuild());
+    }
+
+    @Override
+    public void processGuildLeave(GuildLeaveEvent event) {
+        registry.onGuildLeave(event.getGuild());
     }
 
     @Override
@@ -85,105 +143,141 @@ class CommandManagerImpl implements CommandManager {
     }
 
     @Override
-    public boolean processCommandInteraction(SlashCommandInteractionEvent event) {
-        if(event == null) return false;
-        RegisteredCommand command = slashCommands.get(event.getName());
-        if(command == null) return false;
-
-        if(event.getSubcommandName() != null) {
-            String name = event.getSubcommandName();
-            CommandExecutor subcommand;
-            if(event.getSubcommandGroup() != null) {
-                RegisteredGroup group = command.getGroups().get(event.getSubcommandGroup());
-                subcommand = group.executors().get(name);
-            } else {
-                subcommand = command.getSubcommand(name);
-            }
+    public void setExecutionStrategy(ExecutionStrategy strategy) {
+        this.handlerExecutor = strategy.getExecutor();
+    }
 
-            if(subcommand == null) return false;
-            subcommand.execute(this, event);
-            return true;
+    @Override
+    public void setHandlerExecutor(Executor executor) {
+        if(executor == null) {
+            throw new IllegalArgumentException("Handler executor cannot be null");
         }
-        command.getMainExecutor().execute(this, event);
+        this.handlerExecutor = executor;
+    }
+
+    @Override
+    public Executor getHandlerExecutor() {
+        return handlerExecutor;
+    }
+
+    @Override
+    public void setAutoDeferDeadline(long amount, TimeUnit unit) {
+        pipeline.getAdmissionControl().setAutoDeferAfter(amount, unit);
+    }
+
+    @Override
+    public long getAutoDeferDeadline() {
+        return pipeline.getAdmissionControl().getAutoDeferAfter();
+    }
+
+    @Override
+    public AdmissionControl getAdmissionControl() {
+        return pipeline.getAdmissionControl();
+    }
+
+    @Override
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    @Override
+    public boolean processCommandInteraction(SlashCommandInteractionEvent event) {
+        if(event == null) return false;
+        CommandExecutor executor = routes.get(event.getName(), event.getSubcommandGroup(), event.getSubcommandName());
+        if(executor == null) return false;
+        pipeline.execute(executor.getMode(), new SlashCommandInvocation(event), "command " + event.getFullCommandName(), invocation -> executor.execute(this, invocation));
         return true;
     }
 
     @Override
     public boolean processContextInteraction(UserContextInteractionEvent event) {
-        UserContextCommand command = userContextCommands.get(event.getCommandId());
+        UserContextCommand command = userContextCommands.get(event.getName());
         if(command == null) return false;
-        command.execute(new ContextCommandInvocation<>(event));
+        pipeline.execute(command, new ContextCommandInvocation<>(event), "context command " + event.getName(), command::execute);
         return true;
     }
 
     @Override
     public boolean processContextInteraction(MessageContextInteractionEvent event) {
-        MessageContextCommand command = messageContextCommands.get(event.getCommandId());
+        MessageContextCommand command = messageContextCommands.get(event.getName());
         if(command == null) return false;
-        command.execute(new ContextCommandInvocation<>(event));
+        pipeline.execute(command, new ContextCommandInvocation<>(event), "context command " + event.getName(), command::execute);
         return true;
     }
 
     @Override
     public boolean processModalInteraction(ModalInteractionEvent event) {
-        Modal cached = ResponseCache.getCached(event, Modal.class);
+        Modal cached = responseCache.getCached(event, Modal.class);
         if(cached == null) {
-            cached = ResponseCache.getPermanent(event.getModalId(), Modal.class);
+            cached = responseCache.getPermanent(event.getModalId(), Modal.class);
         }
         if(cached == null) {
             return false;
         }
-        try {
-            JdaModalWrapper.mapAfterRun(event, cached);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
-
-        if(event.getMember() != null) {
-            cached.onExecute(new InteractionInvocation(event), event.getMember());
-            return true;
-        }
-        cached.onExecute(new InteractionInvocation(event), event.getUser());
+        Modal modal = cached;
+        pipeline.execute(modal, new InteractionInvocation(event), "modal " + event.getModalId(), invocation -> {
+            // the fields are written into the shared instance, so concurrent submissions of the same modal run one by one
+            synchronized(modal) {
+                JdaModalWrapper.mapAfterRun(event, modal);
+                if(event.getMember() != null) {
+                    modal.onExecute(invocation, event.getMember());
+                    return;
+                }
+                modal.onExecute(invocation, event.getUser());
+            }
+        });
         return true;
     }
 
     @Override
     public boolean processButtonInteraction(ButtonInteractionEvent event) {
-        Button cached = ResponseCache.getCached(event, Button.class);
+        Button cached = StatelessResponses.resolve(event.getComponentId(), event.getUser(), Button.class);
         if(cached == null) {
-            cached = ResponseCache.getPermanent(event.getComponentId(), Button.class);
+            cached = responseCache.getCached(event, Button.class);
+        }
+        if(cached == null) {
+            cached = responseCache.getPermanent(event.getComponentId(), Button.class);
         }
         if(cached == null) {
             if(debug) {
                 System.out.println("Interaction not found: " + event.getComponentId());
-                System.out.println(ResponseCache.getResponses().stream().map(response -> response.getId() + " " + response.getCreatedFor().getName()).toList());
-                System.out.println(ResponseCache.getPermanentResponses().stream().map(response -> response.getId() + ": " + response.getClass().getName()).toList());
+                System.out.println(responseCache.getResponses().stream().map(response -> response.getId() + " " + response.getCreatedForId()).toList());
+                System.out.println(responseCache.getPermanentResponses().stream().map(response -> response.getId() + ": " + response.getClass().getName()).toList());
             }
 
             return false;
         }
-        if(event.getMember() != null) {
-            cached.onExecute(new ComponentInteractionInvocation(event), event.getMember());
-            return true;
-        }
-        cached.onExecute(new ComponentInteractionInvocation(event), event.getUser());
+        Button button = cached;
+        pipeline.execute(button, new ComponentInteractionInvocation(event), "button " + event.getComponentId(), invocation -> {
+            if(event.getMember() != null) {
+                button.onExecute(invocation, event.getMember());
+                return;
+            }
+            button.onExecute(invocation, event.getUser());
+        });
         return true;
     }
 
     @Override
     public <T, S extends SelectMenu> boolean processSelectMenuInteraction(GenericSelectMenuInteractionEvent<T, S> event) {
-        me.mrfunny.interactionapi.menus.SelectMenu<?> cached = ResponseCache.getCached(event, me.mrfunny.interactionapi.menus.SelectMenu.class);
+        me.mrfunny.interactionapi.menus.SelectMenu<?> cached = StatelessResponses.resolve(event.getComponentId(), event.getUser(), me.mrfunny.interactionapi.menus.SelectMenu.class);
         if(cached == null) {
-            cached = ResponseCache.getPermanent(event.getComponentId(), me.mrfunny.interactionapi.menus.SelectMenu.class);
+            cached = responseCache.getCached(event, me.mrfunny.interactionapi.menus.SelectMenu.class);
         }
         if(cached == null) {
-            return false;
+            cached = responseCache.getPermanent(event.getComponentId(), me.mrfunny.interactionapi.menus.SelectMenu.class);
         }
-        if(event.getMember() != null) {
-            cached.onExecute(new SelectMenuInvocation<>(event), event.getMember());
-            return true;
+        if(cached == null) {
+            return false;
         }
-        cached.onExecute(new SelectMenuInvocation<>(event), event.getUser());
+        me.mrfunny.interactionapi.menus.SelectMenu<?> menu = cached;
+        pipeline.execute(menu, new SelectMenuInvocation<>(event), "select menu " + event.getComponentId(), invocation -> {
+            if(event.getMember() != null) {
+                menu.onExecute(invocation, event.getMember());
+                return;
+            }
+            menu.onExecute(invocation, event.getUser());
+        });
         return true;
     }
 }
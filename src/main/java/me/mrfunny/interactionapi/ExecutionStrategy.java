@@ -0,0 +1,104 @@
+package me.mrfunny.interactionapi;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Decides where the handlers of the interactions run when they are not executed on the JDA event thread.
+Executors are created on the first use and shared by all the managers
+ */
+public enum ExecutionStrategy {
+    /**
+     * Every interaction is handled on a new virtual thread, so handlers can block on REST calls and databases.
+     * Falls back to {@link #PLATFORM_POOL} if the runtime doesn't support virtual threads (before Java 21),
+     * so the amount of handlers running at the same time is limited to its {@link #DEFAULT_POOL_SIZE} threads there
+     */
+    VIRTUAL_THREADS,
+    /**
+     * Handlers run on a pool of {@link #DEFAULT_POOL_SIZE} platform threads. Up to {@link #DEFAULT_QUEUE_CAPACITY} handlers
+     * wait for a thread, once the queue is full the handler runs on the thread which submitted it (usually the JDA event thread),
+     * which slows down the reading of the next events instead of piling them up
+     */
+    PLATFORM_POOL;
+
+    public static final int DEFAULT_POOL_SIZE = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    // holds the platform pool after the fallback, so the reflection is tried only once
+    private static volatile Executor virtualThreads;
+    private static volatile boolean virtualThreadsSupported;
+    private static volatile Executor platformPool;
+
+    public Executor getExecutor() {
+        if(this == VIRTUAL_THREADS) {
+            Executor executor = virtualThreads;
+            if(executor == null) {
+                synchronized(ExecutionStrategy.class) {
+                    if(virtualThreads == null) {
+                        Executor created = createVirtualThreadExecutor();
+                        virtualThreadsSupported = created != null;
+                        virtualThreads = created != null ? created : PLATFORM_POOL.getExecutor();
+                    }
+                    executor = virtualThreads;
+                }
+            }
+            return executor;
+        }
+        Executor executor = platformPool;
+        if(executor == null) {
+            synchronized(ExecutionStrategy.class) {
+                if(platformPool == null) {
+                    platformPool = createPlatformPool(DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY);
+                }
+                executor = platformPool;
+            }
+        }
+        return executor;
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        VIRTUAL_THREADS.getExecutor();
+        return virtualThreadsSupported;
+    }
+
+    /**
+     * Pool with the {@link #DEFAULT_QUEUE_CAPACITY}, see {@link #createPlatformPool(int, int)}
+     */
+    public static ExecutorService createPlatformPool(int size) {
+        return createPlatformPool(size, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Pool of daemon platform threads which is used when virtual threads are not available.
+     * Idle threads are stopped after a minute, tasks which don't get a thread wait in the queue.
+     * When the queue is full, the task runs on the thread which submitted it
+     */
+    public static ExecutorService createPlatformPool(int size, int queueCapacity) {
+        if(size < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Pool size and queue capacity should be at least 1");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), task -> {
+            Thread thread = new Thread(task, "InteractionAPI-Handler-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    // the project is compiled for Java 17, so virtual threads can be used only through the reflection
+    private static Executor createVirtualThreadExecutor() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // not available or requires --enable-preview
+            return null;
+        }
+    }
+}
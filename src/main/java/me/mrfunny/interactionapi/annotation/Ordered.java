@@ -0,0 +1,26 @@
+package me.mrfunny.interactionapi.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Handles the interactions with the same key one after another, in the order they were received.
+ * Interactions with different keys still run in parallel on the handler executor. Ignored if the handler is marked with {@link Sync}.
+ * Can be put on the command method, or on the class of the command, button, modal or select menu
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Ordered {
+    Lane value() default Lane.USER;
+
+    enum Lane {
+        USER,
+        /**
+         * Interactions outside the guilds are ordered by the user
+         */
+        GUILD,
+        CHANNEL
+    }
+}
@@ -4,6 +4,7 @@ import me.mrfunny.interactionapi.common.ComplexExecutable;
 import me.mrfunny.interactionapi.common.SimpleExecutable;
 import me.mrfunny.interactionapi.internal.ComponentInteractionInvocation;
 import me.mrfunny.interactionapi.internal.InteractionInvocation;
+import me.mrfunny.interactionapi.internal.cache.PermanentResponses;
 import me.mrfunny.interactionapi.internal.cache.ResponseCache;
 import me.mrfunny.interactionapi.response.interfaces.CachedResponse;
 import net.dv8tion.jda.api.entities.User;
@@ -24,7 +25,9 @@ public class Button implements CachedResponse, ComplexExecutable<ComponentIntera
     private ButtonStyle style;
 
     public void setId(String id) {
+        String oldId = this.id;
         this.id = id;
+        reindex(oldId);
     }
 
     public void setLabel(String label) {
@@ -50,7 +53,8 @@ public class Button implements CachedResponse, ComplexExecutable<ComponentIntera
     private String url;
     private boolean disabled;
     private EmojiUnion emoji;
-    private User createdFor = null;
+    private long createdForId = 0;
+    private ResponseCache responseCache = null;
 
     public Button(String id, String label, ButtonStyle style, boolean disabled, Emoji emoji) {
         this(id, label, style, null, disabled, emoji);
@@ -71,11 +75,14 @@ public class Button implements CachedResponse, ComplexExecutable<ComponentIntera
         this.url = url;
         this.disabled = disabled;
         this.emoji = (EmojiUnion) emoji;
-        ResponseCache.addPermanent(this);
+        PermanentResponses.add(this);
     }
 
     public Button(User createdFor) {
-        this.createdFor = createdFor;
+        if(createdFor != null) {
+            this.createdForId = createdFor.getIdLong();
+            this.responseCache = ResponseCache.of(createdFor);
+        }
         this.style = ButtonStyle.PRIMARY;
     }
 
@@ -85,7 +92,7 @@ public class Button implements CachedResponse, ComplexExecutable<ComponentIntera
 
     @Override
     public boolean isPermanent() {
-        return true;
+        return createdForId == 0;
     }
 
     @NotNull
@@ -95,8 +102,13 @@ public class Button implements CachedResponse, ComplexExecutable<ComponentIntera
     }
 
     @Override
-    public User getCreatedFor() {
-        return this.createdFor;
+    public long getCreatedForId() {
+        return this.createdForId;
+    }
+
+    @Override
+    public ResponseCache getResponseCache() {
+        return this.responseCache;
     }
 
     @Nullable
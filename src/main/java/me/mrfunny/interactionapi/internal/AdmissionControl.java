@@ -0,0 +1,135 @@
+package me.mrfunny.interactionapi.internal;
+
+import me.mrfunny.interactionapi.CommandManager;
+import me.mrfunny.interactionapi.internal.cache.ExpiryWheel;
+import net.dv8tion.jda.api.interactions.Interaction;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+Decides if the offloaded handler is accepted when it arrives. Discord has to receive the acknowledgement in 3 seconds,
+so during the bursts it's better to answer some interactions with the fallback reply right away than to let all of them time out.
+If enabled, interactions which aren't answered in time get deferred, whether their handler still waits in the queue or is already running,
+so the handler has 15 minutes to respond through the hook
+ */
+public class AdmissionControl {
+    public static final String DEFAULT_FALLBACK_REPLY = "Too many requests are being handled right now, please try again in a moment.";
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder autoDeferred = new LongAdder();
+    private volatile int maxQueued = -1;
+    private volatile long autoDeferMillis = 0;
+    private volatile boolean autoDeferEphemeral = false;
+    private volatile String fallbackReply = DEFAULT_FALLBACK_REPLY;
+    // the deadlines are seconds long and mostly cancelled, so they don't get a scheduled task each.
+    // Expired ones are deferred on the executor, the wheel calls onExpire under its lock
+    private final ExpiryWheel<InteractionInvocation> deadlines = new ExpiryWheel<>(
+            CommandManager.getAsyncExecutor(), 50,
+            invocation -> CommandManager.getAsyncExecutor().execute(() -> autoDefer(invocation))
+    );
+
+    /*
+    Maximum amount of the handlers waiting for a thread, values below 1 make the queue unbounded, which is the default
+     */
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /*
+    How long after its creation the interaction can stay unanswered before it's deferred. 0 disables the automatic deferring, which is the default.
+    Components are deferred with deferEdit, so their message can still be edited. Other interactions get the deferred reply,
+    which decides if the later response is ephemeral, and can't be answered with a modal anymore.
+    Handlers which reply ephemerally should call ephemeral(true) on the invocation before the slow work
+     */
+    public void setAutoDeferAfter(long amount, TimeUnit unit) {
+        if(amount < 0) {
+            throw new IllegalArgumentException("Auto defer time cannot be negative");
+        }
+        this.autoDeferMillis = unit.toMillis(amount);
+    }
+
+    public long getAutoDeferAfter() {
+        return autoDeferMillis;
+    }
+
+    /*
+    Makes the automatically deferred replies ephemeral even if the invocation wasn't marked as ephemeral, false by default
+     */
+    public void setAutoDeferEphemeral(boolean autoDeferEphemeral) {
+        this.autoDeferEphemeral = autoDeferEphemeral;
+    }
+
+    public boolean isAutoDeferEphemeral() {
+        return autoDeferEphemeral;
+    }
+
+    /*
+    Ephemeral message which is sent when the interaction is shed, null sends nothing and lets the interaction fail
+     */
+    public void setFallbackReply(String fallbackReply) {
+        this.fallbackReply = fallbackReply;
+    }
+
+    public String getFallbackReply() {
+        return fallbackReply;
+    }
+
+    public AdmissionStats getStats() {
+        return new AdmissionStats(queued.get(), admitted.sum(), shed.sum(), autoDeferred.sum());
+    }
+
+    /*
+    Returns the task which should be passed to the executor, or null if the interaction was shed
+     */
+    Runnable admit(Interaction interaction, Runnable task) {
+        int max = maxQueued;
+        if(max > 0 && queued.get() >= max) {
+            shed.increment();
+            String reply = fallbackReply;
+            if(reply != null && interaction instanceof IReplyCallback callback && !callback.isAcknowledged()) {
+                callback.reply(reply).setEphemeral(true).queue(null, e -> {});
+            }
+            return null;
+        }
+        queued.incrementAndGet();
+        admitted.increment();
+        return () -> {
+            queued.decrementAndGet();
+            task.run();
+        };
+    }
+
+    /*
+    Schedules the automatic deferral of the invocation, it's cancelled once the handler answers the interaction.
+    Called by the pipeline after the invocation is created and before its handler can start
+     */
+    void arm(InteractionInvocation invocation) {
+        long deferAfter = autoDeferMillis;
+        if(deferAfter <= 0 || invocation.getInteraction().isAcknowledged()) return;
+        // Discord counts the 3 seconds from the creation of the interaction, not from its arrival
+        long delay = invocation.getTimeCreated().toInstant().toEpochMilli() + deferAfter - System.currentTimeMillis();
+        invocation.setDeadline(deadlines.schedule(invocation, Math.max(0, delay), TimeUnit.MILLISECONDS));
+    }
+
+    /*
+    Stops the automatic deferring, called when the JDA instance of the manager shuts down
+     */
+    public void shutdown() {
+        deadlines.stop();
+    }
+
+    private void autoDefer(InteractionInvocation invocation) {
+        if(invocation.deferOnDeadline(autoDeferEphemeral)) {
+            autoDeferred.increment();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package me.mrfunny.interactionapi.internal;
+
+/**
+ * @param queued Handlers which are waiting for a thread right now
+ * @param admitted Handlers which were accepted into the queue
+ * @param shed Interactions which were answered with the fallback reply because the queue was full
+ * @param autoDeferred Interactions which were deferred because their handler didn't answer them before the auto defer deadline
+ */
+public record AdmissionStats(int queued, long admitted, long shed, long autoDeferred) {
+}
@@ -0,0 +1,247 @@
+package me.mrfunny.interactionapi.internal;
+
+import me.mrfunny.interactionapi.CommandManager;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
+import net.dv8tion.jda.api.utils.data.DataObject;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+Collects the data of all the registered commands and uploads them with one bulk overwrite per scope: global commands
+and the commands of every guild. The commands Discord already has are retrieved first, and the scope is left untouched
+if they are the same. The registered commands are the whole list of the scope, other commands of the bot are removed.
+
+Registering the commands schedules the upload, registrations which come shortly one after another are uploaded together.
+With the state file, scopes whose commands have the same hash as the last uploaded ones are skipped without any request
+ */
+public class CommandRegistry {
+    public static final long UPDATE_DELAY_MILLIS = 1000;
+    public static final int DEFAULT_ROLLOUT_PARALLELISM = 8;
+
+    private final JDA jda;
+    private final LinkedHashMap<String, Registered> commands = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledUpdate;
+    private volatile RegistrationState state;
+    private volatile int rolloutParallelism = DEFAULT_ROLLOUT_PARALLELISM;
+    private volatile Consumer<RolloutProgress> rolloutListener;
+
+    private record Registered(Command blueprint, CommandData data) {}
+
+    public CommandRegistry(JDA jda) {
+        this.jda = jda;
+    }
+
+    public synchronized void add(Command blueprint, CommandData data) {
+        commands.put(data.getType() + ":" + data.getName(), new Registered(blueprint, data));
+        if(scheduledUpdate != null) {
+            scheduledUpdate.cancel(false);
+        }
+        scheduledUpdate = CommandManager.getAsyncExecutor().schedule(() -> {
+            update().exceptionally(e -> {
+                System.err.println("Failed to update the commands: " + e.getMessage());
+                e.printStackTrace();
+                return null;
+            });
+        }, UPDATE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+    File which keeps the hashes of the uploaded commands between the restarts, null disables it
+     */
+    public void setStateFile(Path file) {
+        this.state = file == null ? null : new RegistrationState(file);
+    }
+
+    /*
+    Amount of guilds whose commands are updated at the same time
+     */
+    public void setRolloutParallelism(int parallelism) {
+        if(parallelism < 1) {
+            throw new IllegalArgumentException("Rollout parallelism should be at least 1");
+        }
+        this.rolloutParallelism = parallelism;
+    }
+
+    public int getRolloutParallelism() {
+        return rolloutParallelism;
+    }
+
+    /*
+    Called after the commands of every guild were updated or failed to update
+     */
+    public void setRolloutListener(Consumer<RolloutProgress> listener) {
+        this.rolloutListener = listener;
+    }
+
+    public synchronized boolean hasGuildCommands() {
+        for(Registered registered : commands.values()) {
+            if(!registered.blueprint().isGlobal()) return true;
+        }
+        return false;
+    }
+
+    public synchronized List<CommandData> getGlobalCommands() {
+        ArrayList<CommandData> result = new ArrayList<>();
+        for(Registered registered : commands.values()) {
+            if(registered.blueprint().isGlobal()) {
+                result.add(registered.data());
+            }
+        }
+        return result;
+    }
+
+    public synchronized List<CommandData> getGuildCommands(Guild guild) {
+        ArrayList<CommandData> result = new ArrayList<>();
+        for(Registered registered : commands.values()) {
+            if(registered.blueprint().isGlobal()) continue;
+            if(!registered.blueprint().shouldRegisterToGuild().apply(guild)) continue;
+            result.add(registered.data());
+        }
+        return result;
+    }
+
+    /*
+    Uploads the commands of every scope where they differ from the ones Discord has.
+    Without guild commands, only the guilds which got commands before according to the state file are visited,
+    so the commands removed from the bot are removed from them as well. Without the state file such guilds keep their commands
+     */
+    public CompletableFuture<Void> update() {
+        cancelScheduledUpdate();
+        CompletableFuture<Boolean> global = updateGlobal();
+        List<Guild> toUpdate = hasGuildCommands() ? jda.getGuilds() : jda.getGuilds().stream().filter(this::hasStoredState).toList();
+        CompletableFuture<RolloutProgress> guilds = toUpdate.isEmpty()
+                ? CompletableFuture.completedFuture(new RolloutProgress(0, 0, 0, 0))
+                : CommandRollout.run(toUpdate, rolloutParallelism, this::updateGuild, rolloutListener);
+        return CompletableFuture.allOf(global, guilds).whenComplete((result, e) -> saveState());
+    }
+
+    public synchronized void cancelScheduledUpdate() {
+        if(scheduledUpdate != null) {
+            scheduledUpdate.cancel(false);
+            scheduledUpdate = null;
+        }
+    }
+
+    /*
+    Gives the commands to the guild the bot has just joined. The state file isn't trusted here: the commands could be removed
+    by Discord while the bot wasn't in the guild, so they are always compared with the ones the guild has
+     */
+    public CompletableFuture<Void> onGuildJoin(Guild guild) {
+        if(!hasGuildCommands() && !hasStoredState(guild)) return CompletableFuture.completedFuture(null);
+        return CommandRollout.run(List.of(guild), 1, joined -> updateGuild(joined, true), null).thenRun(this::saveState);
+    }
+
+    /*
+    Forgets the hash of the guild the bot has left, so its commands are uploaded again if it joins back
+     */
+    public void onGuildLeave(Guild guild) {
+        RegistrationState state = this.state;
+        if(state == null) return;
+        state.forget(stateKey("guild." + guild.getId()));
+        saveState();
+    }
+
+    public CompletableFuture<Boolean> updateGlobal() {
+        return updateScope("global", jda.retrieveCommands(), jda::updateCommands, getGlobalCommands(), false);
+    }
+
+    public CompletableFuture<Boolean> updateGuild(Guild guild) {
+        return updateGuild(guild, false);
+    }
+
+    /*
+    With force, the commands are retrieved from the guild even if the state file says they were already uploaded
+     */
+    public CompletableFuture<Boolean> updateGuild(Guild guild, boolean force) {
+        return updateScope("guild." + guild.getId(), guild.retrieveCommands(), guild::updateCommands, getGuildCommands(guild), force);
+    }
+
+    public void saveState() {
+        RegistrationState state = this.state;
+        if(state == null) return;
+        try {
+            state.save();
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /*
+    Completes with true if the commands of the scope were overwritten
+     */
+    private CompletableFuture<Boolean> updateScope(
+            String scope,
+            RestAction<List<net.dv8tion.jda.api.interactions.commands.Command>> retrieve,
+            Supplier<CommandListUpdateAction> update,
+            List<CommandData> wanted,
+            boolean force
+    ) {
+        RegistrationState state = this.state;
+        String stateKey = stateKey(scope);
+        String hash = state == null ? null : RegistrationState.hash(wanted);
+        if(!force && state != null && state.isUploaded(stateKey, hash)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return retrieve.submit().thenCompose(existing -> {
+            ArrayList<CommandData> existingData = new ArrayList<>(existing.size());
+            for(net.dv8tion.jda.api.interactions.commands.Command command : existing) {
+                existingData.add(CommandData.fromCommand(command));
+            }
+            if(isSame(existingData, wanted)) {
+                return CompletableFuture.completedFuture(false);
+            }
+            return update.get().addCommands(wanted).submit().thenApply(commands -> true);
+        }).thenApply(updated -> {
+            if(state != null) {
+                state.setUploaded(stateKey, hash);
+            }
+            return updated;
+        });
+    }
+
+    private boolean hasStoredState(Guild guild) {
+        RegistrationState state = this.state;
+        return state != null && state.isKnown(stateKey("guild." + guild.getId()));
+    }
+
+    // the same file can be used by several bots
+    private String stateKey(String scope) {
+        return jda.getSelfUser().getApplicationId() + "." + scope;
+    }
+
+    private static boolean isSame(List<CommandData> existing, List<CommandData> wanted) {
+        if(existing.size() != wanted.size()) return false;
+        HashMap<String, Map<String, Object>> existingByName = new HashMap<>();
+        for(CommandData data : existing) {
+            existingByName.put(data.getType() + ":" + data.getName(), normalize(data));
+        }
+        for(CommandData data : wanted) {
+            if(!Objects.equals(existingByName.get(data.getType() + ":" + data.getName()), normalize(data))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // nested objects are compared as plain maps and lists after going through JSON
+    private static Map<String, Object> normalize(CommandData data) {
+        return DataObject.fromJson(data.toData().toJson()).toMap();
+    }
+}
@@ -0,0 +1,114 @@
+package me.mrfunny.interactionapi.internal;
+
+import me.mrfunny.interactionapi.CommandManager;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+Updates the commands of many guilds with a limited amount of guilds in progress at the same time.
+JDA waits for the rate limit bucket of every route itself, the limit keeps the requests from piling up in its queue
+and from hitting the global rate limit. Guilds which failed because of the network or Discord are retried with a growing delay,
+errors like missing access are not retried
+ */
+public class CommandRollout {
+    public static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final ConcurrentLinkedQueue<Guild> queue;
+    private final Function<Guild, CompletableFuture<Boolean>> update;
+    private final Consumer<RolloutProgress> listener;
+    private final int total;
+    private final AtomicInteger done = new AtomicInteger();
+    private final AtomicInteger updated = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final CompletableFuture<RolloutProgress> result = new CompletableFuture<>();
+
+    private CommandRollout(List<Guild> guilds, Function<Guild, CompletableFuture<Boolean>> update, Consumer<RolloutProgress> listener) {
+        this.queue = new ConcurrentLinkedQueue<>(guilds);
+        this.update = update;
+        this.listener = listener;
+        this.total = guilds.size();
+    }
+
+    /**
+     * @param listener Called after every finished guild, can be null
+     * @return Completes when every guild is finished, never completes exceptionally
+     */
+    public static CompletableFuture<RolloutProgress> run(List<Guild> guilds, int parallelism, Function<Guild, CompletableFuture<Boolean>> update, Consumer<RolloutProgress> listener) {
+        CommandRollout rollout = new CommandRollout(guilds, update, listener);
+        if(guilds.isEmpty()) {
+            rollout.result.complete(rollout.progress());
+            return rollout.result;
+        }
+        for(int i = 0; i < Math.min(parallelism, guilds.size()); i++) {
+            rollout.next();
+        }
+        return rollout.result;
+    }
+
+    private void next() {
+        Guild guild = queue.poll();
+        if(guild != null) {
+            attempt(guild, 1);
+        }
+    }
+
+    private void attempt(Guild guild, int attempt) {
+        CompletableFuture<Boolean> future;
+        try {
+            future = update.apply(guild);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((wasUpdated, e) -> {
+            if(e == null) {
+                if(wasUpdated) updated.incrementAndGet();
+                finish();
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if(attempt < MAX_ATTEMPTS && isRetryable(cause)) {
+                long delay = RETRY_DELAY_MILLIS << (attempt - 1);
+                CommandManager.getAsyncExecutor().schedule(() -> attempt(guild, attempt + 1), delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+            System.err.println("Failed to update the commands of the guild " + guild.getId() + " after " + attempt + " attempts: " + cause.getMessage());
+            failed.incrementAndGet();
+            finish();
+        });
+    }
+
+    private void finish() {
+        int finished = done.incrementAndGet();
+        RolloutProgress progress = progress();
+        if(listener != null) {
+            try {
+                listener.accept(progress);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        if(finished == total) {
+            result.complete(progress);
+            return;
+        }
+        next();
+    }
+
+    private RolloutProgress progress() {
+        return new RolloutProgress(total, done.get(), updated.get(), failed.get());
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        return !(e instanceof ErrorResponseException response) || response.isServerError();
+    }
+}
@@ -15,22 +15,29 @@ import java.util.function.Consumer;
 
 public class ComponentInteractionInvocation extends InteractionInvocation implements InChannelInvocation {
     private final ComponentInteraction interaction;
-    private boolean acked;
+    private volatile boolean acked;
 
     public ComponentInteractionInvocation(IReplyCallback replyCallback) {
         super(replyCallback);
         if(replyCallback instanceof ComponentInteraction componentInteraction) {
             this.interaction = componentInteraction;
         } else throw new RuntimeException("Failed to assign component interaction");
+        if(deferred) {
+            // deferred with deferEdit, so the original message can only be edited through the hook
+            this.acked = true;
+            this.possibleMessage = componentInteraction.getMessage();
+        }
     }
 
     public ComponentInteractionInvocation ack() {
+        cancelDeadline();
         this.possibleMessage = this.interaction.getMessage();
         setInteractionHook(this.createAck().complete());
 
         return this;
     }
     public void ackAsync(Consumer<ComponentInteractionInvocation> after) {
+        cancelDeadline();
         this.createAck().queue((hook) -> {
             setInteractionHook(hook);
             after.accept(this);
@@ -39,7 +46,8 @@ public class ComponentInteractionInvocation extends InteractionInvocation implem
     }
 
     public void editOriginal(MessageContent content) {
-        if(replied && acked) {
+        cancelDeadline();
+        if((replied || deferred) && acked) {
             createEdit(content).complete();
             return;
         }
@@ -47,7 +55,8 @@ public class ComponentInteractionInvocation extends InteractionInvocation implem
     }
 
     public void editOriginalAsync(MessageContent content) {
-        if(replied) {
+        cancelDeadline();
+        if(replied || (deferred && acked)) {
             Channels.editAsync(possibleMessage.getChannel(), possibleMessage.getId(), content);
             return;
         }
@@ -59,7 +68,20 @@ public class ComponentInteractionInvocation extends InteractionInvocation implem
         return (MessageEditCallbackAction) ResponseMapper.map(content, action);
     }
 
+    /*
+    Components are deferred without the new message, so the original one can still be edited through the hook
+     */
+    @Override
+    protected void autoDefer(boolean ephemeral) {
+        this.acked = true;
+        this.interaction.deferEdit().queue(null, e -> {});
+        this.possibleMessage = this.interaction.getMessage();
+        this.interactionHook = this.interaction.getHook();
+        this.deferred = true;
+    }
+
     private MessageEditCallbackAction createAck() {
+        cancelDeadline();
         this.acked = true;
         return this.interaction.deferEdit();
     }
@@ -1,5 +1,6 @@
 package me.mrfunny.interactionapi.internal;
 
+import me.mrfunny.interactionapi.internal.cache.ExpiryWheel;
 import me.mrfunny.interactionapi.internal.wrapper.util.ResponseMapper;
 import me.mrfunny.interactionapi.response.MessageContent;
 import me.mrfunny.interactionapi.modals.Modal;
@@ -20,19 +21,75 @@ import net.dv8tion.jda.api.requests.restaction.interactions.ReplyCallbackAction;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 public class InteractionInvocation {
-    protected boolean deferred = false;
+    // changed by the async callbacks and the deadline deferral, so they are volatile
+    protected volatile boolean deferred = false;
     protected final IReplyCallback interaction;
-    protected InteractionHook interactionHook = null;
-    protected Message possibleMessage = null;
-    protected boolean replied = false;
-    protected boolean ephemeral = false;
+    protected volatile InteractionHook interactionHook = null;
+    protected volatile Message possibleMessage = null;
+    protected volatile boolean replied = false;
+    protected volatile boolean ephemeral = false;
+    // automatic deferral armed by the pipeline, and who has claimed the first response: the handler or the deadline
+    private static final int OPEN = 0, ANSWERING = 1, AUTO_DEFERRING = 2, AUTO_DEFERRED = 3;
+    private volatile ExpiryWheel.Timeout<?> deadline = null;
+    private final AtomicInteger answering = new AtomicInteger(OPEN);
 
     public InteractionInvocation(IReplyCallback replyCallback) {
         this.interaction = replyCallback;
+        // the interaction could be deferred before the invocation was created
+        if(replyCallback.isAcknowledged()) {
+            this.deferred = true;
+            this.interactionHook = replyCallback.getHook();
+        }
+    }
+
+    void setDeadline(ExpiryWheel.Timeout<?> deadline) {
+        this.deadline = deadline;
+    }
+
+    /*
+    Called by every response before it looks at the state, so the interaction isn't deferred automatically after the handler answered it.
+    If the deadline won, waits until the deferral is applied, which only queues the request, so the response goes through the hook
+     */
+    protected void cancelDeadline() {
+        if(answering.compareAndSet(OPEN, ANSWERING)) {
+            ExpiryWheel.Timeout<?> deadline = this.deadline;
+            if(deadline != null) {
+                deadline.cancel();
+            }
+            return;
+        }
+        while(answering.get() == AUTO_DEFERRING) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /*
+    Defers the interaction if the handler didn't respond before the deadline, later sends go through the hook
+     */
+    boolean deferOnDeadline(boolean forceEphemeral) {
+        if(deferred || replied || interaction.isAcknowledged()) return false;
+        if(!answering.compareAndSet(OPEN, AUTO_DEFERRING)) return false;
+        try {
+            autoDefer(ephemeral || forceEphemeral);
+            return true;
+        } catch (Exception e) {
+            System.err.println("Failed to defer the interaction automatically: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        } finally {
+            answering.set(AUTO_DEFERRED);
+        }
+    }
+
+    protected void autoDefer(boolean ephemeral) {
+        interaction.deferReply(ephemeral).queue(null, e -> {});
+        this.interactionHook = interaction.getHook();
+        this.deferred = true;
     }
     
     public void deferAsync() {
@@ -49,6 +106,7 @@ public class InteractionInvocation {
     }
 
     public void deferAsync(boolean ephemeral, Consumer<InteractionInvocation> onComplete) {
+        cancelDeadline();
         if(deferred) return;
         this.createDefer(ephemeral).queue(hook -> {
             this.deferred = true;
@@ -60,6 +118,7 @@ public class InteractionInvocation {
     }
     
     public void sendAsync(InteractionResponse response, boolean ephemeral, Consumer<InteractionInvocation> messageConsumer) {
+        cancelDeadline();
         if(replied) {
             Logger.getGlobal().warning("The interaction is already sent, doing nothing.");
             return;
@@ -115,6 +174,7 @@ public class InteractionInvocation {
     }
 
     public InteractionInvocation defer(boolean ephemeral) {
+        cancelDeadline();
         if(deferred) return this;
         this.interactionHook = createDefer(ephemeral).complete();
         this.deferred = true;
@@ -122,6 +182,7 @@ public class InteractionInvocation {
     }
 
     public InteractionInvocation send(InteractionResponse response, boolean ephemeral) {
+        cancelDeadline();
         if(replied) {
             Logger.getGlobal().warning("The interaction is already sent, doing nothing.");
             return this;
@@ -154,6 +215,7 @@ public class InteractionInvocation {
     }
 
     protected ModalCallbackAction createModalResponse(IModalCallback event, Modal modal) throws Exception {
+        cancelDeadline();
         return event.replyModal(modal.getMappedModal());
     }
 
@@ -175,6 +237,7 @@ public class InteractionInvocation {
     
     @NotNull
     public ReplyCallbackAction createSend(MessageContent content, boolean ephemeral) {
+        cancelDeadline();
         ReplyCallbackAction callbackAction = interaction.deferReply(ephemeral);
         ResponseMapper.map(content, callbackAction);
         return callbackAction;
@@ -190,6 +253,7 @@ public class InteractionInvocation {
 
     
     public ReplyCallbackAction createDefer(boolean ephemeral) {
+        cancelDeadline();
         return this.interaction.deferReply(ephemeral);
     }
 
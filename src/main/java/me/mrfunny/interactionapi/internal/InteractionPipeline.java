@@ -0,0 +1,116 @@
+package me.mrfunny.interactionapi.internal;
+
+import me.mrfunny.interactionapi.CommandManager;
+import me.mrfunny.interactionapi.annotation.Ordered;
+import me.mrfunny.interactionapi.annotation.Sync;
+import me.mrfunny.interactionapi.util.SerialExecutor;
+import net.dv8tion.jda.api.interactions.Interaction;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.function.Consumer;
+
+/*
+Every handler of the interactions goes through the pipeline: the handlers marked with @Sync run on the JDA event thread,
+others are passed to the handler executor of the manager if the AdmissionControl accepts them. Handlers marked with @Ordered go through one of the lanes first:
+every lane runs its tasks one by one, and the key of the interaction always picks the same lane.
+The invocation is created before it enters the pipeline, so the automatic deferral can be armed for it before the handler starts
+ */
+public class InteractionPipeline {
+    public static final int LANES = 256;
+    private static final ClassValue<Mode> typeModes = new ClassValue<>() {
+        @Override
+        protected Mode computeValue(Class<?> type) {
+            return Mode.of(type);
+        }
+    };
+
+    private final CommandManager manager;
+    private final SerialExecutor[] lanes = new SerialExecutor[LANES];
+    private final AdmissionControl admission = new AdmissionControl();
+
+    public InteractionPipeline(CommandManager manager) {
+        this.manager = manager;
+        // the handler executor can be changed after the lanes were created
+        for(int i = 0; i < LANES; i++) {
+            lanes[i] = new SerialExecutor(task -> manager.getHandlerExecutor().execute(task));
+        }
+    }
+
+    /**
+     * How the handler is executed
+     * @param lane Null if the interactions don't need to be ordered
+     */
+    public record Mode(boolean inline, Ordered.Lane lane) {
+        public static final Mode OFFLOADED = new Mode(false, null);
+
+        /*
+        Annotations of the first element which has any of them are used, so the method can override its class
+         */
+        public static Mode of(AnnotatedElement... elements) {
+            for(AnnotatedElement element : elements) {
+                if(element.isAnnotationPresent(Sync.class)) {
+                    return new Mode(true, null);
+                }
+                Ordered ordered = element.getAnnotation(Ordered.class);
+                if(ordered != null) {
+                    return new Mode(false, ordered.value());
+                }
+            }
+            return OFFLOADED;
+        }
+    }
+
+    /*
+    Mode declared on the class of the handler, checked once per class
+     */
+    public static Mode modeOf(Object handler) {
+        return typeModes.get(handler.getClass());
+    }
+
+    public <I extends InteractionInvocation> void execute(Object handler, I invocation, String description, Consumer<I> action) {
+        execute(modeOf(handler), invocation, description, action);
+    }
+
+    public <I extends InteractionInvocation> void execute(Mode mode, I invocation, String description, Consumer<I> action) {
+        Runnable task = () -> {
+            try {
+                action.accept(invocation);
+            } catch (Throwable e) {
+                System.err.println("Failed handling " + description + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        };
+        Interaction interaction = invocation.getInteraction();
+        if(mode.inline()) {
+            admission.arm(invocation);
+            task.run();
+            return;
+        }
+        Runnable admitted = admission.admit(interaction, task);
+        if(admitted == null) return;
+        admission.arm(invocation);
+        if(mode.lane() == null) {
+            manager.getHandlerExecutor().execute(admitted);
+            return;
+        }
+        lanes[laneIndex(laneKey(mode.lane(), interaction))].execute(admitted);
+    }
+
+    public AdmissionControl getAdmissionControl() {
+        return admission;
+    }
+
+    private static long laneKey(Ordered.Lane lane, Interaction interaction) {
+        return switch (lane) {
+            case USER -> interaction.getUser().getIdLong();
+            case GUILD -> interaction.getGuild() != null ? interaction.getGuild().getIdLong() : interaction.getUser().getIdLong();
+            case CHANNEL -> interaction.getChannel() != null ? interaction.getChannel().getIdLong() : interaction.getUser().getIdLong();
+        };
+    }
+
+    private static int laneIndex(long key) {
+        // the lower bits of the snowflakes hold the worker and sequence, mixing spreads the keys over all the lanes
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 56) & (LANES - 1);
+    }
+}
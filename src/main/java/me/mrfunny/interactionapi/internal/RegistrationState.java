@@ -0,0 +1,121 @@
+package me.mrfunny.interactionapi.internal;
+
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.utils.data.DataObject;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Hashes of the commands which were last uploaded to every scope, kept in a local file between the restarts.
+If the hash of the scope didn't change, the commands are not even retrieved from Discord.
+Deleting the file makes the next start compare every scope with Discord again
+ */
+public class RegistrationState {
+    private final Path file;
+    private final ConcurrentHashMap<String, String> hashes = new ConcurrentHashMap<>();
+
+    public RegistrationState(Path file) {
+        this.file = file;
+        if(!Files.exists(file)) return;
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            System.err.println("Failed to read the command registration state " + file + ": " + e.getMessage());
+            return;
+        }
+        for(String scope : properties.stringPropertyNames()) {
+            hashes.put(scope, properties.getProperty(scope));
+        }
+    }
+
+    public boolean isUploaded(String scope, String hash) {
+        return hash.equals(hashes.get(scope));
+    }
+
+    public void setUploaded(String scope, String hash) {
+        hashes.put(scope, hash);
+    }
+
+    /*
+    If any commands were uploaded to the scope, even an empty list
+     */
+    public boolean isKnown(String scope) {
+        return hashes.containsKey(scope);
+    }
+
+    public void forget(String scope) {
+        hashes.remove(scope);
+    }
+
+    public synchronized void save() {
+        Properties properties = new Properties();
+        properties.putAll(hashes);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try(Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Hashes of the uploaded commands, delete to upload them again");
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save the command registration state " + file, e);
+        }
+    }
+
+    /*
+    SHA-256 of the commands written with sorted keys, so the hash doesn't depend on the order of the fields
+     */
+    public static String hash(List<CommandData> commands) {
+        StringBuilder canonical = new StringBuilder();
+        for(CommandData command : commands) {
+            write(canonical, DataObject.fromJson(command.toData().toJson()).toMap());
+            canonical.append('\n');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void write(StringBuilder builder, Object value) {
+        if(value instanceof Map<?, ?> map) {
+            builder.append('{');
+            TreeMap<String, Object> sorted = new TreeMap<>();
+            map.forEach((key, nested) -> sorted.put(key.toString(), nested));
+            sorted.forEach((key, nested) -> {
+                builder.append('"').append(key).append("\":");
+                write(builder, nested);
+                builder.append(',');
+            });
+            builder.append('}');
+        } else if(value instanceof List<?> list) {
+            builder.append('[');
+            for(Object nested : list) {
+                write(builder, nested);
+                builder.append(',');
+            }
+            builder.append(']');
+        } else if(value instanceof String string) {
+            builder.append('"').append(string.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        } else {
+            builder.append(value);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package me.mrfunny.interactionapi.internal;
+
+/**
+ * @param total Guilds in the rollout
+ * @param done Guilds which were finished, including the failed ones
+ * @param updated Guilds whose commands were overwritten
+ * @param failed Guilds which failed after all the attempts
+ */
+public record RolloutProgress(int total, int done, int updated, int failed) {
+    public boolean isFinished() {
+        return done == total;
+    }
+}
@@ -0,0 +1,11 @@
+package me.mrfunny.interactionapi.internal.cache;
+
+/*
+Snapshot of the response cache counters. maxSize is -1 when the cache is unbounded
+ */
+public record CacheStats(int size, int maxSize, long hits, long misses, long evictions, long expirations) {
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+}
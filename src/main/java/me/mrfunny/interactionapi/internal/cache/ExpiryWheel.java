@@ -0,0 +1,190 @@
+package me.mrfunny.interactionapi.internal.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/*
+Hashed timing wheel which expires scheduled values in batches from a single repeating task.
+Values are only added to a concurrent queue by the scheduling threads, the wheel itself is touched by the ticking task only.
+Cancelled values are not counted anymore and are dropped from their bucket the next time the ticking task passes it
+ */
+@SuppressWarnings("unchecked")
+public class ExpiryWheel<T> {
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final ScheduledExecutorService executor;
+    private final Consumer<T> onExpire;
+    private final ArrayDeque<Timeout<T>>[] wheel = new ArrayDeque[WHEEL_SIZE];
+    private final ConcurrentLinkedQueue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile long requestedTickMillis;
+    private long tickMillis;
+    private long lastTick = -1;
+    private ScheduledFuture<?> task;
+    private boolean stopped;
+
+    public ExpiryWheel(ScheduledExecutorService executor, long tickMillis, Consumer<T> onExpire) {
+        if(tickMillis < 1) {
+            throw new IllegalArgumentException("Tick resolution should be at least 1 millisecond");
+        }
+        this.executor = executor;
+        this.onExpire = onExpire;
+        this.tickMillis = tickMillis;
+        this.requestedTickMillis = tickMillis;
+        for(int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+    }
+
+    public Timeout<T> schedule(T value, long delay, TimeUnit unit) {
+        Timeout<T> timeout = new Timeout<>(this, value, System.currentTimeMillis() + unit.toMillis(delay));
+        incoming.add(timeout);
+        size.incrementAndGet();
+        if(started.compareAndSet(false, true)) {
+            synchronized(this) {
+                if(!stopped) {
+                    task = executor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        return timeout;
+    }
+
+    /*
+    Stops the ticking task, values which are still scheduled never expire
+     */
+    public synchronized void stop() {
+        stopped = true;
+        if(task != null) {
+            task.cancel(false);
+        }
+    }
+
+    /*
+    Changes how often the wheel is advanced. Values never expire later than one tick after their deadline
+     */
+    public void setTickResolution(long amount, TimeUnit unit) {
+        long millis = unit.toMillis(amount);
+        if(millis < 1) {
+            throw new IllegalArgumentException("Tick resolution should be at least 1 millisecond");
+        }
+        this.requestedTickMillis = millis;
+    }
+
+    public long getTickResolution() {
+        return requestedTickMillis;
+    }
+
+    /*
+    Amount of values which are waiting for the expiry, without the cancelled ones
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private synchronized void tick() {
+        if(stopped) return;
+        try {
+            if(requestedTickMillis != tickMillis) {
+                changeResolution(requestedTickMillis);
+            }
+            long now = System.currentTimeMillis();
+            long nowTick = now / tickMillis;
+            if(lastTick == -1) {
+                lastTick = nowTick - 1;
+            }
+            Timeout<T> added;
+            while((added = incoming.poll()) != null) {
+                if(added.isPending()) place(added);
+            }
+            // if the task was delayed for longer than the whole rotation, every bucket is visited once
+            for(long tick = Math.max(lastTick + 1, nowTick - WHEEL_MASK); tick <= nowTick; tick++) {
+                ArrayDeque<Timeout<T>> bucket = wheel[(int) (tick & WHEEL_MASK)];
+                for(int remaining = bucket.size(); remaining > 0; remaining--) {
+                    Timeout<T> timeout = bucket.poll();
+                    if(!timeout.isPending()) continue; // cancelled, unlinked here
+                    if(timeout.deadline / tickMillis > nowTick) {
+                        bucket.add(timeout); // deadline is in one of the next rotations
+                        continue;
+                    }
+                    if(!timeout.finish(Timeout.EXPIRED)) continue;
+                    try {
+                        onExpire.accept(timeout.value);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+            lastTick = nowTick;
+        } catch (Exception e) {
+            System.err.println("Failed to advance the expiry wheel: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long tick = Math.max(timeout.deadline / tickMillis, lastTick + 1);
+        wheel[(int) (tick & WHEEL_MASK)].add(timeout);
+    }
+
+    private void changeResolution(long newTickMillis) {
+        ArrayList<Timeout<T>> placed = new ArrayList<>();
+        for(ArrayDeque<Timeout<T>> bucket : wheel) {
+            placed.addAll(bucket);
+            bucket.clear();
+        }
+        this.tickMillis = newTickMillis;
+        this.lastTick = System.currentTimeMillis() / newTickMillis - 1;
+        for(Timeout<T> timeout : placed) {
+            if(timeout.isPending()) place(timeout);
+        }
+        task.cancel(false);
+        task = executor.scheduleAtFixedRate(this::tick, newTickMillis, newTickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+    Scheduled value, which can be cancelled before it expires
+     */
+    public static final class Timeout<T> {
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final ExpiryWheel<T> wheel;
+        private final T value;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Timeout(ExpiryWheel<T> wheel, T value, long deadline) {
+            this.wheel = wheel;
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        /*
+        Returns false if the value already expired or was cancelled
+         */
+        public boolean cancel() {
+            return finish(CANCELLED);
+        }
+
+        public boolean isPending() {
+            return state.get() == PENDING;
+        }
+
+        private boolean finish(int newState) {
+            if(!state.compareAndSet(PENDING, newState)) return false;
+            wheel.size.decrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package me.mrfunny.interactionapi.internal.cache;
+
+import me.mrfunny.interactionapi.response.interfaces.CachedResponse;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Permanent responses are created once, usually before any CommandManager exists, and look the same on every shard,
+so they are shared by all the managers. After the startup the registry is only read
+ */
+@SuppressWarnings("unchecked")
+public class PermanentResponses {
+    // permanent responses are indexed by their id, separately for every type of the response
+    private final static ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, CachedResponse>> responses = new ConcurrentHashMap<>();
+
+    public static void add(CachedResponse response) {
+        String id = response.getId();
+        if(id == null) {
+            System.err.println(response.getClass().getName() + " has null ID");
+            return;
+        }
+        CachedResponse registered = index(response).putIfAbsent(id, response);
+        if(registered != null && registered != response) {
+            throw new IllegalStateException("Permanent response with ID " + id + " is already registered by " + registered.getClass().getName() + ", cannot register " + response.getClass().getName());
+        }
+    }
+
+    public static void updateId(CachedResponse response, String oldId) {
+        if(oldId == null || Objects.equals(oldId, response.getId())) return;
+        if(index(response).remove(oldId, response)) {
+            add(response);
+        }
+    }
+
+    public static <T extends CachedResponse> T get(String id, Class<T> toReturn) {
+        if(id == null) return null;
+        ConcurrentHashMap<String, CachedResponse> index = responses.get(toReturn);
+        if(index != null) {
+            return (T) index.get(id);
+        }
+        // the requested type is more specific than the one the response was indexed by
+        for(ConcurrentHashMap<String, CachedResponse> typeIndex : responses.values()) {
+            CachedResponse response = typeIndex.get(id);
+            if(toReturn.isInstance(response)) {
+                return (T) response;
+            }
+        }
+        return null;
+    }
+
+    private static ConcurrentHashMap<String, CachedResponse> index(CachedResponse response) {
+        Class<?> type = response.getClass();
+        for(Class<? extends CachedResponse> searchable : ResponseCache.SEARCHABLE_TYPES) {
+            if(searchable.isInstance(response)) {
+                type = searchable;
+                break;
+            }
+        }
+        return responses.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+    }
+
+    /*
+    This method never should be called outside the API, unless really needed
+     */
+    public static List<CachedResponse> getResponses() {
+        return responses.values().stream().flatMap(index -> index.values().stream()).toList();
+    }
+}
@@ -4,119 +4,416 @@ import me.mrfunny.interactionapi.CommandManager;
 import me.mrfunny.interactionapi.buttons.Button;
 import me.mrfunny.interactionapi.menus.SelectMenu;
 import me.mrfunny.interactionapi.modals.Modal;
+import me.mrfunny.interactionapi.internal.cache.store.ResponseStore;
+import me.mrfunny.interactionapi.internal.cache.store.StoredResponse;
 import me.mrfunny.interactionapi.response.interfaces.CachedResponse;
+import me.mrfunny.interactionapi.response.interfaces.PersistentResponse;
+import me.mrfunny.interactionapi.response.interfaces.StatelessResponse;
+import me.mrfunny.interactionapi.util.SerialExecutor;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
 import net.dv8tion.jda.api.interactions.Interaction;
 import net.dv8tion.jda.api.interactions.components.ComponentInteraction;
-import net.dv8tion.jda.api.interactions.components.buttons.ButtonInteraction;
+import net.dv8tion.jda.api.interactions.modals.ModalInteraction;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.lang.reflect.Constructor;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.function.BiPredicate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
+/*
+Cache of the responses created for a specific user. Every CommandManager owns its own instance
+ */
 @SuppressWarnings("unchecked")
 public class ResponseCache {
     public static final int DEFAULT_DELETE_AFTER = 300;
-    private final static ArrayList<CachedResponse> responses = new ArrayList<>();
-    private final static HashSet<CachedResponse> permanentResponses = new HashSet<>();
-    private final static HashMap<Class<? extends CachedResponse>, BiPredicate<GenericInteractionCreateEvent, CachedResponse>> searchers = new HashMap<>();
-    static {
-        searchers.put(Modal.class, (interaction, gotResponse) -> {
-            if(gotResponse instanceof Modal response) {
-                return response.getCreatedFor().getIdLong() == interaction.getUser().getIdLong();
-            }
-            return false;
-        });
-        searchers.put(Button.class, (interaction, gotResponse) -> {
-            if(gotResponse instanceof Button response) {
-                return response.getCreatedFor().getIdLong() == interaction.getUser().getIdLong();
-            }
-            return false;
-        });
+    static final Set<Class<? extends CachedResponse>> SEARCHABLE_TYPES = Set.of(Modal.class, Button.class, SelectMenu.class);
+    // responses are indexed by the component id and the id of the user they were created for.
+    // The cache is accessed from JDA event threads and the async executor at the same time, so only concurrent structures are used
+    private final ConcurrentHashMap<ResponseKey, CacheEntry> responses = new ConcurrentHashMap<>();
+    // insertion order of the responses for the eviction, only maintained while the cache is bounded
+    private final ConcurrentLinkedQueue<CacheEntry> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger evictionQueueSize = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private volatile int maxSize = -1;
+    private final ExpiryWheel<CacheEntry> expiry;
+    private volatile ResponseStore store = null;
+    private final JDA jda;
+    // the store is written off the calling thread, but in the same order as the cache was modified
+    private final SerialExecutor storeExecutor;
+    // set while a response is restored from the store, its constructor and setters must not cache it with a fresh expiry
+    private static final ThreadLocal<Boolean> restoring = ThreadLocal.withInitial(() -> false);
 
-        searchers.put(SelectMenu.class, (interaction, gotResponse) -> {
-            if(gotResponse instanceof SelectMenu<?> response) {
-                return response.getCreatedFor().getIdLong() == interaction.getUser().getIdLong();
+    public ResponseCache(ScheduledExecutorService executor) {
+        this(null, executor);
+    }
+
+    public ResponseCache(JDA jda, ScheduledExecutorService executor) {
+        this.jda = jda;
+        this.storeExecutor = new SerialExecutor(executor);
+        this.expiry = new ExpiryWheel<>(executor, 1000, entry -> {
+            if(remove(entry)) {
+                expirations.increment();
+                unpersist(entry.response, entry.response.getId());
             }
-            return false;
         });
     }
 
+    /**
+     * @return Cache of the manager which handles the JDA instance of the user, null if the user is null
+     * @throws IllegalStateException If CommandManager.manage wasn't called for the JDA instance of the user yet
+     */
+    public static ResponseCache of(User user) {
+        if(user == null) return null;
+        return CommandManager.of(user.getJDA()).getResponseCache();
+    }
+
+    /*
+    Caches the response in the cache of its manager if it's created for a user, otherwise registers it as a permanent one.
+    Stateless responses only get their id assigned
+     */
     public static boolean decide(CachedResponse cachedResponse) {
-        if((!cachedResponse.isPermanent() || cachedResponse.deleteAfter() != -1) && cachedResponse.getCreatedFor() != null) {
-            responses.add(cachedResponse);
-            CommandManager.getAsyncExecutor().schedule(() -> responses.remove(cachedResponse), cachedResponse.deleteAfter(), TimeUnit.SECONDS);
+        if(cachedResponse instanceof StatelessResponse stateless) {
+            StatelessResponses.assignId(stateless);
+            return false;
+        }
+        if(restoring.get()) return false;
+        ResponseCache cache = cachedResponse.getResponseCache();
+        if(cache != null && (!cachedResponse.isPermanent() || cachedResponse.deleteAfter() != -1) && cachedResponse.getCreatedForId() != 0) {
+            cache.put(cachedResponse, cachedResponse.deleteAfter());
             return true;
         }
-        permanentResponses.add(cachedResponse);
+        PermanentResponses.add(cachedResponse);
         return false;
     }
 
-    public static void addCached(CachedResponse cachedResponse) {
+    public void addCached(CachedResponse cachedResponse) {
         if(cachedResponse.isPermanent() && cachedResponse.deleteAfter() < 1) {
             throw new RuntimeException("Cannot cache a permanent response!");
         }
-        int deleteTime = cachedResponse.deleteAfter();
+        if(restoring.get()) return;
+        put(cachedResponse, cachedResponse.deleteAfter());
+    }
+
+    private void put(CachedResponse cachedResponse, int deleteTime) {
         if(deleteTime < 1) {
             deleteTime = DEFAULT_DELETE_AFTER;
         }
-        responses.add(cachedResponse);
-        CommandManager.getAsyncExecutor().schedule(() -> responses.remove(cachedResponse), deleteTime, TimeUnit.SECONDS);
+        put(cachedResponse, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(deleteTime), true);
     }
 
-    public static void addPermanent(CachedResponse response) {
-        permanentResponses.add(response);
+    private void put(CachedResponse cachedResponse, long expiresAt, boolean persist) {
+        if(cachedResponse.getCreatedForId() == 0) {
+            throw new RuntimeException("Cannot cache a response which is not created for a user!");
+        }
+        CacheEntry entry = new CacheEntry(cachedResponse, expiresAt);
+        entry.timeout = expiry.schedule(entry, expiresAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        CacheEntry replaced = responses.put(ResponseKey.of(cachedResponse), entry);
+        if(replaced != null) {
+            replaced.removed = true;
+            replaced.timeout.cancel();
+        }
+        if(persist) {
+            persist(entry);
+        }
+        if(maxSize > 0) {
+            enqueue(entry);
+            evictIfNeeded();
+        }
     }
 
-    public static <T extends CachedResponse> T getCached(GenericInteractionCreateEvent event, Class<T> toSearch) {
-        BiPredicate<GenericInteractionCreateEvent, CachedResponse> searcher = searchers.get(toSearch);
-        if(searcher == null) return null;
-        for(CachedResponse response : responses) {
-            if(response.getCreatedFor() == null) continue;
-            if(!Objects.equals(provideComponentApi(event.getInteraction()), response.getId())) continue;
-            if(!searcher.test(event, response)) continue;
+    /*
+    Sets the store which keeps the responses implementing PersistentResponse, so they outlive the restart of the bot.
+    Responses evicted because of the size bound stay in the store and are restored on the next interaction with them
+     */
+    public void setStore(ResponseStore store) {
+        this.store = store;
+    }
+
+    /**
+     * @return JDA instance of the manager which owns the cache, null if the cache was created without it
+     */
+    public JDA getJda() {
+        return jda;
+    }
+
+    public ResponseStore getStore() {
+        return store;
+    }
+
+    private void persist(CacheEntry entry) {
+        ResponseStore store = this.store;
+        if(store == null || !(entry.response instanceof PersistentResponse persistent)) return;
+        String id = persistent.getId();
+        if(id == null) return; // saved once the id is set
+        storeExecutor.execute(() -> store.save(new StoredResponse(
+                persistent.getClass().getName(),
+                id,
+                persistent.getCreatedForId(),
+                entry.expiresAt,
+                persistent.saveState()
+        )));
+    }
+
+    private void unpersist(CachedResponse response, String id) {
+        ResponseStore store = this.store;
+        if(store == null || id == null || !(response instanceof PersistentResponse)) return;
+        long createdForId = response.getCreatedForId();
+        storeExecutor.execute(() -> store.remove(id, createdForId));
+    }
+
+    /*
+    Creates the response from the store again after the restart. The response is created with the constructor which accepts the User.
+    It is cached with the expiry it was stored with and isn't written back to the store
+     */
+    private <T extends CachedResponse> T restore(String id, User user, Class<T> toSearch) {
+        ResponseStore store = this.store;
+        if(store == null) return null;
+        StoredResponse stored = store.load(id, user.getIdLong());
+        if(stored == null) return null;
+        try {
+            Class<?> type = Class.forName(stored.className());
+            if(!PersistentResponse.class.isAssignableFrom(type) || !toSearch.isAssignableFrom(type)) {
+                System.err.println(stored.className() + " can't be restored as " + toSearch.getName());
+                return null;
+            }
+            Constructor<?> constructor = type.getDeclaredConstructor(User.class);
+            constructor.setAccessible(true);
+            PersistentResponse response;
+            restoring.set(true);
+            try {
+                response = (PersistentResponse) constructor.newInstance(user);
+                assignId(response, stored.id());
+                response.restoreState(stored.state());
+            } finally {
+                restoring.set(false);
+            }
+            put(response, stored.expiresAt(), false);
             return (T) response;
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Failed to restore " + stored.className() + " with ID " + stored.id() + ": " + e.getMessage());
+            return null;
         }
-        return null;
     }
 
-    public static <T extends CachedResponse> T getPermanent(String id, Class<T> toReturn) {
-        for(CachedResponse response : permanentResponses) {
-            if(!toReturn.isAssignableFrom(response.getClass())) continue;
-            if(response.getId() == null) {
-                System.err.println(response.getClass().getName() + " has null ID");
+    static void assignId(CachedResponse response, String id) {
+        if(Objects.equals(response.getId(), id)) return;
+        if(response instanceof Button button) {
+            button.setId(id);
+        } else if(response instanceof Modal modal) {
+            modal.setId(id);
+        } else if(response instanceof SelectMenu<?> menu) {
+            menu.setId(id);
+        }
+    }
+
+    /*
+    Bounds the amount of cached responses. When the bound is exceeded, the least recently used responses are evicted
+    before their expiry (second chance algorithm: responses used since the last pass are moved to the end of the queue).
+    Values below 1 make the cache unbounded, which is the default
+     */
+    public void setMaxSize(int maxSize) {
+        synchronized(evictionQueue) {
+            this.maxSize = maxSize;
+            if(maxSize < 1) {
+                // drained one by one, so the size stays exact if a put which still saw the bound adds its entry meanwhile
+                CacheEntry entry;
+                while((entry = evictionQueue.poll()) != null) {
+                    entry.queued = 0;
+                    evictionQueueSize.decrementAndGet();
+                }
+                return;
+            }
+            // responses cached while the cache was unbounded aren't in the queue yet
+            for(CacheEntry entry : responses.values()) {
+                enqueue(entry);
+            }
+        }
+        evictIfNeeded();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /*
+    An entry is queued once, even if the put and the bound being enabled both try to add it
+     */
+    private void enqueue(CacheEntry entry) {
+        if(!CacheEntry.QUEUED.compareAndSet(entry, 0, 1)) return;
+        evictionQueue.add(entry);
+        evictionQueueSize.incrementAndGet();
+    }
+
+    private void evictIfNeeded() {
+        int bound = maxSize;
+        // every entry can get its second chance at most once per pass
+        int attempts = evictionQueueSize.get() * 2;
+        while(bound > 0 && responses.size() > bound && attempts-- > 0) {
+            CacheEntry candidate = evictionQueue.poll();
+            if(candidate == null) break;
+            if(candidate.removed) {
+                evictionQueueSize.decrementAndGet();
                 continue;
             }
-            if(response.getId().equals(id)) {
-                return (T) response;
+            if(candidate.referenced) {
+                candidate.referenced = false;
+                evictionQueue.add(candidate);
+                continue;
+            }
+            evictionQueueSize.decrementAndGet();
+            if(remove(candidate)) {
+                evictions.increment();
             }
         }
-        return null;
+        // expired responses are left in the queue, they are swept out once they make up the most of it
+        if(bound > 0 && evictionQueueSize.get() > bound * 2) {
+            evictionQueue.removeIf(entry -> {
+                if(!entry.removed) return false;
+                evictionQueueSize.decrementAndGet();
+                return true;
+            });
+        }
+    }
+
+    private boolean remove(CacheEntry entry) {
+        if(!responses.remove(ResponseKey.of(entry.response), entry)) return false;
+        entry.removed = true;
+        entry.timeout.cancel(); // no-op when called by the expiry
+        return true;
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(
+                responses.size(),
+                maxSize,
+                hits.sum(),
+                misses.sum(),
+                evictions.sum(),
+                expirations.sum()
+        );
+    }
+
+    /*
+    Stops removing the expired responses, called when the JDA instance of the manager shuts down
+     */
+    public void shutdown() {
+        expiry.stop();
+    }
+
+    /*
+    Sets how often expired responses are removed from the cache, one second by default
+     */
+    public void setExpiryResolution(long amount, TimeUnit unit) {
+        expiry.setTickResolution(amount, unit);
+    }
+
+    public ExpiryWheel<?> getExpiry() {
+        return expiry;
+    }
+
+    /*
+    Has to be called when the id of the already cached response changes, otherwise it won't be found by the new id
+     */
+    public void updateId(CachedResponse response, String oldId) {
+        if(Objects.equals(oldId, response.getId())) return;
+        if(response.getCreatedForId() == 0) {
+            PermanentResponses.updateId(response, oldId);
+            return;
+        }
+        // only the thread which removed the old key moves the response, so an expiry running at the same time can't resurrect it
+        ResponseKey oldKey = new ResponseKey(oldId, response.getCreatedForId());
+        CacheEntry entry = responses.get(oldKey);
+        if(entry != null && entry.response == response && responses.remove(oldKey, entry)) {
+            responses.put(ResponseKey.of(response), entry);
+            unpersist(response, oldId);
+            persist(entry);
+        }
+    }
+
+    public void addPermanent(CachedResponse response) {
+        PermanentResponses.add(response);
+    }
+
+    public <T extends CachedResponse> T getCached(GenericInteractionCreateEvent event, Class<T> toSearch) {
+        if(!SEARCHABLE_TYPES.contains(toSearch)) return null;
+        String id = provideComponentApi(event.getInteraction());
+        if(id == null) return null;
+        CacheEntry entry = responses.get(new ResponseKey(id, event.getUser().getIdLong()));
+        if(entry == null || !toSearch.isInstance(entry.response)) {
+            misses.increment();
+            // permanent and stateless responses are never stored, so the store isn't asked for them
+            if(id.isEmpty() || id.charAt(0) == StatelessIds.PREFIX || PermanentResponses.get(id, toSearch) != null) return null;
+            return restore(id, event.getUser(), toSearch);
+        }
+        hits.increment();
+        entry.referenced = true;
+        return (T) entry.response;
+    }
+
+    public <T extends CachedResponse> T getPermanent(String id, Class<T> toReturn) {
+        return PermanentResponses.get(id, toReturn);
     }
 
     private static String provideComponentApi(Interaction interaction) {
         if(interaction instanceof ComponentInteraction c) return c.getComponentId();
+        if(interaction instanceof ModalInteraction m) return m.getModalId();
         return null;
     }
 
-    public static boolean removeCached(CachedResponse response) {
-        return responses.remove(response);
+    public boolean removeCached(CachedResponse response) {
+        if(response.getCreatedForId() == 0) return false;
+        CacheEntry entry = responses.get(ResponseKey.of(response));
+        if(entry == null || entry.response != response) return false;
+        if(!remove(entry)) return false;
+        unpersist(response, response.getId());
+        return true;
     }
 
     /*
-    This method never should be called outside the API, unless really needed. Modification can cause bugs
+    This method never should be called outside the API, unless really needed
      */
-    public static ArrayList<CachedResponse> getResponses() {
-        return responses;
+    public Collection<CachedResponse> getResponses() {
+        return responses.values().stream().map(entry -> entry.response).toList();
     }
 
     /*
-    This method never should be called outside the API, unless really needed. Modification can cause bugs
+    This method never should be called outside the API, unless really needed
      */
-    public static HashSet<CachedResponse> getPermanentResponses() {
-        return permanentResponses;
+    public List<CachedResponse> getPermanentResponses() {
+        return PermanentResponses.getResponses();
+    }
+
+    private static final class CacheEntry {
+        private final CachedResponse response;
+        private final long expiresAt;
+        private volatile boolean referenced = false;
+        private volatile boolean removed = false;
+        private volatile int queued = 0;
+        private ExpiryWheel.Timeout<CacheEntry> timeout;
+        private static final AtomicIntegerFieldUpdater<CacheEntry> QUEUED = AtomicIntegerFieldUpdater.newUpdater(CacheEntry.class, "queued");
+
+        private CacheEntry(CachedResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private record ResponseKey(String id, long createdFor) {
+        static ResponseKey of(CachedResponse response) {
+            return new ResponseKey(response.getId(), response.getCreatedForId());
+        }
     }
 }
@@ -0,0 +1,143 @@
+package me.mrfunny.interactionapi.internal.cache;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/*
+Packs the handler key, owner, expiry and state of a stateless response into the custom id of the component.
+The id is the prefix followed by the Z85 encoded payload:
+[key length][key][owner id][expiry in seconds][state][first 8 bytes of HMAC-SHA256 of everything before]
+Lengths, owner and expiry are varints, 0 owner means anyone can use the component, 0 expiry means it never expires
+ */
+public class StatelessIds {
+    public static final char PREFIX = '~';
+    public static final int MAX_ID_LENGTH = 100;
+    private static final int MAC_LENGTH = 8;
+    private static final char[] ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ.-:+=^!/*?&<>()[]{}@%$#".toCharArray();
+    private static final byte[] DECODE = new byte[128];
+    private static final ThreadLocal<Mac> MACS = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    });
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for(int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    public record Decoded(String key, long ownerId, long expiresAt, byte[] state) {}
+
+    public static String encode(SecretKeySpec secret, String key, long ownerId, long expiresAt, byte[] state) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(32 + state.length);
+        writeVarLong(payload, keyBytes.length);
+        payload.writeBytes(keyBytes);
+        writeVarLong(payload, ownerId);
+        writeVarLong(payload, expiresAt == 0 ? 0 : (expiresAt + 999) / 1000);
+        payload.writeBytes(state);
+        payload.writeBytes(mac(secret, payload.toByteArray(), payload.size()));
+
+        byte[] bytes = payload.toByteArray();
+        int length = 1 + bytes.length / 4 * 5 + (bytes.length % 4 == 0 ? 0 : bytes.length % 4 + 1);
+        if(length > MAX_ID_LENGTH) {
+            throw new IllegalStateException("State of the stateless response " + key + " is too big: the id would be " + length + " characters long, Discord allows " + MAX_ID_LENGTH);
+        }
+        StringBuilder id = new StringBuilder(length).append(PREFIX);
+        for(int i = 0; i < bytes.length; i += 4) {
+            int blockLength = Math.min(4, bytes.length - i);
+            long block = 0;
+            for(int j = 0; j < 4; j++) {
+                block = block << 8 | (j < blockLength ? bytes[i + j] & 0xFF : 0);
+            }
+            char[] chars = new char[5];
+            for(int j = 4; j >= 0; j--) {
+                chars[j] = ALPHABET[(int) (block % 85)];
+                block /= 85;
+            }
+            // partial block is written without the characters which only hold the padding
+            id.append(chars, 0, blockLength + 1);
+        }
+        return id.toString();
+    }
+
+    /*
+    Returns null if the id isn't a stateless one or its signature doesn't match
+     */
+    public static Decoded decode(SecretKeySpec secret, String id) {
+        if(id == null || id.length() < 2 || id.charAt(0) != PREFIX || id.length() > MAX_ID_LENGTH) return null;
+        int chars = id.length() - 1;
+        if(chars % 5 == 1) return null;
+        byte[] bytes = new byte[chars / 5 * 4 + (chars % 5 == 0 ? 0 : chars % 5 - 1)];
+        int written = 0;
+        for(int i = 1; i < id.length(); i += 5) {
+            int blockLength = Math.min(5, id.length() - i);
+            long block = 0;
+            for(int j = 0; j < 5; j++) {
+                int digit = 84; // padding of the partial block rounds the value up, so the truncated bytes come out the same
+                if(j < blockLength) {
+                    char c = id.charAt(i + j);
+                    if(c >= 128 || (digit = DECODE[c]) < 0) return null;
+                }
+                block = block * 85 + digit;
+            }
+            if(blockLength == 5 && block > 0xFFFFFFFFL) return null;
+            for(int j = 0; j < blockLength - 1; j++) {
+                bytes[written++] = (byte) (block >>> (24 - j * 8));
+            }
+        }
+        if(bytes.length <= MAC_LENGTH) return null;
+        int payloadLength = bytes.length - MAC_LENGTH;
+        if(!MessageDigest.isEqual(mac(secret, bytes, payloadLength), Arrays.copyOfRange(bytes, payloadLength, bytes.length))) return null;
+
+        int[] position = {0};
+        long keyLength = readVarLong(bytes, position, payloadLength);
+        if(keyLength < 0 || position[0] + keyLength > payloadLength) return null;
+        String key = new String(bytes, position[0], (int) keyLength, StandardCharsets.UTF_8);
+        position[0] += (int) keyLength;
+        long ownerId = readVarLong(bytes, position, payloadLength);
+        long expiresAt = readVarLong(bytes, position, payloadLength) * 1000;
+        if(ownerId < 0 || expiresAt < 0) return null;
+        return new Decoded(key, ownerId, expiresAt, Arrays.copyOfRange(bytes, position[0], payloadLength));
+    }
+
+    private static byte[] mac(SecretKeySpec secret, byte[] bytes, int length) {
+        Mac mac = MACS.get();
+        try {
+            mac.init(secret);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid secret of the stateless responses", e);
+        }
+        mac.update(bytes, 0, length);
+        return Arrays.copyOf(mac.doFinal(), MAC_LENGTH);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    // -1 if the varint is cut off
+    private static long readVarLong(byte[] bytes, int[] position, int limit) {
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7) {
+            if(position[0] >= limit) return -1;
+            byte b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if(b >= 0) return value;
+        }
+        return -1;
+    }
+}
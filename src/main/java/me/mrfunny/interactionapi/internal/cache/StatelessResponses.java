@@ -0,0 +1,91 @@
+package me.mrfunny.interactionapi.internal.cache;
+
+import me.mrfunny.interactionapi.response.interfaces.StatelessResponse;
+import net.dv8tion.jda.api.entities.User;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+Stateless responses keep everything needed to handle the interaction in the custom id of the component,
+so they take no memory in the cache and are handled by any process of the bot which has the same secret.
+Handlers are registered once at the startup, like the permanent responses, and are shared by all the managers
+ */
+@SuppressWarnings("unchecked")
+public class StatelessResponses {
+    public static final int MAX_KEY_LENGTH = 16;
+    private final static ConcurrentHashMap<String, Handler<?>> handlers = new ConcurrentHashMap<>();
+    private final static ConcurrentHashMap<Class<?>, Handler<?>> handlersByType = new ConcurrentHashMap<>();
+    private static volatile SecretKeySpec secret = randomSecret();
+
+    private record Handler<T extends StatelessResponse>(String key, Class<T> type, Function<User, T> factory) {}
+
+    /**
+     * Registers the type of the stateless response
+     * @param key Short name of the handler which is written into the custom ids, should stay the same between the restarts
+     * @param factory Creates the response for the user who interacted with it, before its state is restored
+     */
+    public static <T extends StatelessResponse> void register(String key, Class<T> type, Function<User, T> factory) {
+        if(key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Key of the stateless response should be from 1 to " + MAX_KEY_LENGTH + " characters long");
+        }
+        Handler<T> handler = new Handler<>(key, type, factory);
+        Handler<?> registered = handlers.putIfAbsent(key, handler);
+        if(registered != null && registered.type() != type) {
+            throw new IllegalStateException("Stateless response with key " + key + " is already registered by " + registered.type().getName() + ", cannot register " + type.getName());
+        }
+        handlersByType.put(type, handler);
+    }
+
+    /**
+     * Sets the key the ids are signed with. Processes of the same bot should use the same secret,
+     * otherwise the components sent before the restart can't be used. By default, a random secret is generated on the startup
+     */
+    public static void setSecret(byte[] key) {
+        if(key.length < 16) {
+            throw new IllegalArgumentException("Secret should be at least 16 bytes long");
+        }
+        secret = new SecretKeySpec(key.clone(), "HmacSHA256");
+    }
+
+    /*
+    Writes the handler key, owner, expiry and the state of the response into its id
+     */
+    public static void assignId(StatelessResponse response) {
+        Handler<?> handler = handlersByType.get(response.getClass());
+        if(handler == null) {
+            throw new IllegalStateException(response.getClass().getName() + " is not registered as a stateless response");
+        }
+        int deleteAfter = response.deleteAfter();
+        long expiresAt = deleteAfter < 1 ? 0 : System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(deleteAfter);
+        String id = StatelessIds.encode(secret, handler.key(), response.getCreatedForId(), expiresAt, response.saveState());
+        ResponseCache.assignId(response, id);
+    }
+
+    /**
+     * Creates the response from the id of the component
+     * @return Null if the id isn't a valid stateless one, has expired or the user can't use it
+     */
+    public static <T> T resolve(String id, User user, Class<T> toSearch) {
+        if(id == null || id.isEmpty() || id.charAt(0) != StatelessIds.PREFIX) return null;
+        StatelessIds.Decoded decoded = StatelessIds.decode(secret, id);
+        if(decoded == null) return null;
+        if(decoded.expiresAt() != 0 && decoded.expiresAt() < System.currentTimeMillis()) return null;
+        if(decoded.ownerId() != 0 && decoded.ownerId() != user.getIdLong()) return null;
+        Handler<?> handler = handlers.get(decoded.key());
+        if(handler == null || !toSearch.isAssignableFrom(handler.type())) return null;
+        StatelessResponse response = handler.factory().apply(user);
+        ResponseCache.assignId(response, id);
+        response.restoreState(decoded.state());
+        return (T) response;
+    }
+
+    private static SecretKeySpec randomSecret() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, "HmacSHA256");
+    }
+}
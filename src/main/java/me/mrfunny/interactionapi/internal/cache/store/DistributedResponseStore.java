@@ -0,0 +1,123 @@
+package me.mrfunny.interactionapi.internal.cache.store;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+Store for the bots which run as several processes. Responses are kept in remote key-value stores shared by all the processes,
+so a component can be handled by any of them, not only by the one which created it.
+
+Every response is routed to one of the partitions by the id of the user it was created for, so all the components
+of one user live in the same remote store. Loaded and saved responses are kept in a near-cache for a short time,
+which saves the round trip when the same component is used several times in a row.
+Responses removed by another process can be returned from the near-cache until it expires
+ */
+public class DistributedResponseStore implements ResponseStore {
+    public static final long DEFAULT_NEAR_CACHE_MILLIS = 2000;
+    private static final int NEAR_CACHE_MAX_SIZE = 10_000;
+
+    private final List<RemoteKeyValueStore> partitions;
+    private final String keyPrefix;
+    private final ConcurrentHashMap<StoreKey, NearEntry> nearCache = new ConcurrentHashMap<>();
+    private volatile long nearCacheMillis = DEFAULT_NEAR_CACHE_MILLIS;
+
+    public DistributedResponseStore(RemoteKeyValueStore remote) {
+        this(List.of(remote), "interactions:");
+    }
+
+    public DistributedResponseStore(List<RemoteKeyValueStore> partitions, String keyPrefix) {
+        if(partitions.isEmpty()) {
+            throw new IllegalArgumentException("At least one remote store is required");
+        }
+        this.partitions = List.copyOf(partitions);
+        this.keyPrefix = keyPrefix;
+    }
+
+    /*
+    How long the responses stay in the near-cache, DEFAULT_NEAR_CACHE_MILLIS by default. 0 disables the near-cache.
+    The near-cache isn't invalidated by the other processes: a response removed by another process (the component was closed
+    or replaced) is still returned by this one for up to this time after this process last loaded or saved it.
+    Removing through this store invalidates its own near-cache right away. Bots whose handlers must not see the closed
+    components should disable the near-cache, every load is a round trip to the remote store then
+     */
+    public void setNearCacheTime(long amount, TimeUnit unit) {
+        if(amount < 0) {
+            throw new IllegalArgumentException("Near-cache time cannot be negative");
+        }
+        this.nearCacheMillis = unit.toMillis(amount);
+        if(nearCacheMillis == 0) {
+            nearCache.clear();
+        }
+    }
+
+    public long getNearCacheTime() {
+        return nearCacheMillis;
+    }
+
+    @Override
+    public void save(StoredResponse response) {
+        StoreKey key = new StoreKey(response.id(), response.createdForId());
+        route(response.createdForId()).put(remoteKey(key), StoredResponseCodec.encode(response), response.expiresAt());
+        remember(key, response);
+    }
+
+    @Override
+    public StoredResponse load(String id, long createdForId) {
+        StoreKey key = new StoreKey(id, createdForId);
+        long now = System.currentTimeMillis();
+        NearEntry near = nearCache.get(key);
+        if(near != null) {
+            if(near.cachedUntil() > now && !near.response().isExpired(now)) {
+                return near.response();
+            }
+            nearCache.remove(key, near);
+        }
+        byte[] bytes = route(createdForId).get(remoteKey(key));
+        if(bytes == null) return null;
+        StoredResponse response = StoredResponseCodec.decode(bytes);
+        if(response.isExpired(now)) return null;
+        remember(key, response);
+        return response;
+    }
+
+    @Override
+    public void remove(String id, long createdForId) {
+        StoreKey key = new StoreKey(id, createdForId);
+        nearCache.remove(key);
+        route(createdForId).delete(remoteKey(key));
+    }
+
+    /*
+    Picks the partition with jump consistent hashing, so adding a partition moves only a part of the users
+     */
+    private RemoteKeyValueStore route(long createdForId) {
+        if(partitions.size() == 1) return partitions.get(0);
+        long key = createdForId;
+        long bucket = -1;
+        long next = 0;
+        while(next < partitions.size()) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return partitions.get((int) bucket);
+    }
+
+    private String remoteKey(StoreKey key) {
+        return keyPrefix + key.createdForId() + ":" + key.id();
+    }
+
+    private void remember(StoreKey key, StoredResponse response) {
+        long millis = nearCacheMillis;
+        if(millis == 0) return;
+        if(nearCache.size() >= NEAR_CACHE_MAX_SIZE) {
+            long now = System.currentTimeMillis();
+            nearCache.values().removeIf(entry -> entry.cachedUntil() <= now);
+            if(nearCache.size() >= NEAR_CACHE_MAX_SIZE) return;
+        }
+        nearCache.put(key, new NearEntry(response, System.currentTimeMillis() + millis));
+    }
+
+    private record NearEntry(StoredResponse response, long cachedUntil) {}
+}
@@ -0,0 +1,36 @@
+package me.mrfunny.interactionapi.internal.cache.store;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Store which keeps the responses in the memory of the process, doesn't survive the restart
+ */
+public class InMemoryResponseStore implements ResponseStore {
+    private final ConcurrentHashMap<StoreKey, StoredResponse> responses = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(StoredResponse response) {
+        responses.put(new StoreKey(response.id(), response.createdForId()), response);
+    }
+
+    @Override
+    public StoredResponse load(String id, long createdForId) {
+        StoreKey key = new StoreKey(id, createdForId);
+        StoredResponse response = responses.get(key);
+        if(response == null) return null;
+        if(response.isExpired(System.currentTimeMillis())) {
+            responses.remove(key, response);
+            return null;
+        }
+        return response;
+    }
+
+    @Override
+    public void remove(String id, long createdForId) {
+        responses.remove(new StoreKey(id, createdForId));
+    }
+
+    public int size() {
+        return responses.size();
+    }
+}
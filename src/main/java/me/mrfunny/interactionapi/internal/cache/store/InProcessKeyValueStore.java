@@ -0,0 +1,38 @@
+package me.mrfunny.interactionapi.internal.cache.store;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+RemoteKeyValueStore kept in the memory of the process. Sharing one instance between several managers
+in the same JVM behaves like several bot processes sharing a remote store, which lets the distributed mode be tested locally
+ */
+public class InProcessKeyValueStore implements RemoteKeyValueStore {
+    private final ConcurrentHashMap<String, Value> values = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] get(String key) {
+        Value value = values.get(key);
+        if(value == null) return null;
+        if(value.expiresAt() <= System.currentTimeMillis()) {
+            values.remove(key, value);
+            return null;
+        }
+        return value.bytes().clone();
+    }
+
+    @Override
+    public void put(String key, byte[] value, long expiresAt) {
+        values.put(key, new Value(value.clone(), expiresAt));
+    }
+
+    @Override
+    public void delete(String key) {
+        values.remove(key);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    private record Value(byte[] bytes, long expiresAt) {}
+}
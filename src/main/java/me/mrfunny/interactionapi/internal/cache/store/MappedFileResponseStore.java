@@ -0,0 +1,187 @@
+package me.mrfunny.interactionapi.internal.cache.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+Store which appends the responses to a memory-mapped file, so they survive the restart of the process.
+Removed and expired responses are dropped from the file when it runs out of space.
+
+Layout of the file: magic, version, then records of [length][type][response encoded by StoredResponseCodec].
+The length of the record is written last, a zero length marks the end of the written data
+ */
+public class MappedFileResponseStore implements ResponseStore, Closeable {
+    public static final int DEFAULT_CAPACITY = 16 * 1024 * 1024;
+    private static final int MAGIC = 0x49415253;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final byte RECORD_SAVE = 1;
+    private static final byte RECORD_REMOVE = 2;
+
+    private final Path file;
+    private int capacity;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+    // offset of the last saved record for every response which wasn't removed
+    private final HashMap<StoreKey, Integer> index = new HashMap<>();
+
+    public MappedFileResponseStore(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY);
+    }
+
+    public MappedFileResponseStore(Path file, int capacity) throws IOException {
+        if(capacity <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Capacity of the store is too small");
+        }
+        this.file = file;
+        this.capacity = Math.max(capacity, Files.exists(file) ? (int) Files.size(file) : 0);
+        map();
+        readIndex();
+    }
+
+    private void map() throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void readIndex() throws IOException {
+        index.clear();
+        int magic = buffer.getInt(0);
+        if(magic == 0) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+        } else if(magic != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException(file + " is not a response store file");
+        }
+        long now = System.currentTimeMillis();
+        int position = HEADER_SIZE;
+        while(position + 4 <= capacity) {
+            int length = buffer.getInt(position);
+            // the record which was written partially is ignored
+            if(length <= 0 || position + 4 + length > capacity) break;
+            ByteBuffer record = buffer.slice(position + 4, length);
+            byte type = record.get();
+            StoredResponse response = StoredResponseCodec.decode(record);
+            StoreKey key = new StoreKey(response.id(), response.createdForId());
+            if(type == RECORD_SAVE && !response.isExpired(now)) {
+                index.put(key, position);
+            } else {
+                index.remove(key);
+            }
+            position += 4 + length;
+        }
+        writePosition = position;
+    }
+
+    @Override
+    public synchronized void save(StoredResponse response) {
+        StoreKey key = new StoreKey(response.id(), response.createdForId());
+        index.put(key, append(encode(RECORD_SAVE, response)));
+    }
+
+    @Override
+    public synchronized StoredResponse load(String id, long createdForId) {
+        StoreKey key = new StoreKey(id, createdForId);
+        Integer position = index.get(key);
+        if(position == null) return null;
+        StoredResponse response = read(position);
+        if(response.isExpired(System.currentTimeMillis())) {
+            index.remove(key);
+            return null;
+        }
+        return response;
+    }
+
+    @Override
+    public synchronized void remove(String id, long createdForId) {
+        if(index.remove(new StoreKey(id, createdForId)) == null) return;
+        append(encode(RECORD_REMOVE, new StoredResponse("", id, createdForId, 0, new byte[0])));
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private int append(byte[] record) {
+        if(writePosition + 4 + record.length > capacity) {
+            compact(4 + record.length);
+        }
+        int position = writePosition;
+        buffer.put(position + 4, record);
+        buffer.putInt(position, record.length);
+        writePosition += 4 + record.length;
+        return position;
+    }
+
+    /*
+    Rewrites the file with the responses which are still alive, growing it if they don't leave enough space
+     */
+    private void compact(int needed) {
+        try {
+            long now = System.currentTimeMillis();
+            ArrayList<byte[]> alive = new ArrayList<>(index.size());
+            int aliveSize = 0;
+            for(Map.Entry<StoreKey, Integer> entry : index.entrySet()) {
+                StoredResponse response = read(entry.getValue());
+                if(response.isExpired(now)) continue;
+                byte[] record = encode(RECORD_SAVE, response);
+                alive.add(record);
+                aliveSize += 4 + record.length;
+            }
+            int newCapacity = capacity;
+            while(HEADER_SIZE + aliveSize + needed > newCapacity / 2 && newCapacity < Integer.MAX_VALUE / 2) {
+                newCapacity *= 2;
+            }
+
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.deleteIfExists(temporary);
+            try(FileChannel temporaryChannel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer temporaryBuffer = temporaryChannel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+                temporaryBuffer.putInt(MAGIC).putInt(VERSION);
+                for(byte[] record : alive) {
+                    temporaryBuffer.putInt(record.length).put(record);
+                }
+                temporaryBuffer.force();
+            }
+            channel.close();
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.capacity = newCapacity;
+            map();
+            readIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact the response store " + file, e);
+        }
+    }
+
+    private StoredResponse read(int position) {
+        ByteBuffer record = buffer.slice(position + 4, buffer.getInt(position));
+        record.get();
+        return StoredResponseCodec.decode(record);
+    }
+
+    private static byte[] encode(byte type, StoredResponse response) {
+        byte[] encoded = StoredResponseCodec.encode(response);
+        byte[] record = new byte[encoded.length + 1];
+        record[0] = type;
+        System.arraycopy(encoded, 0, record, 1, encoded.length);
+        return record;
+    }
+}
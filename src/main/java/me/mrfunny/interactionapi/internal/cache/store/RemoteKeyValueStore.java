@@ -0,0 +1,18 @@
+package me.mrfunny.interactionapi.internal.cache.store;
+
+/*
+Key-value storage shared by all the processes of the bot, for example Redis. Implementations have to be thread-safe
+ */
+public interface RemoteKeyValueStore {
+    /*
+    Returns null if there is no value or it has expired
+     */
+    byte[] get(String key);
+
+    /*
+    expiresAt is the epoch millisecond after which the value can be deleted by the store
+     */
+    void put(String key, byte[] value, long expiresAt);
+
+    void delete(String key);
+}
@@ -0,0 +1,15 @@
+package me.mrfunny.interactionapi.internal.cache.store;
+
+/*
+Storage of the persistent responses which lets them outlive the process. Calls for the same response are never made concurrently
+ */
+public interface ResponseStore {
+    void save(StoredResponse response);
+
+    /*
+    Returns null if there is no response with the id, created for the user, or it has expired
+     */
+    StoredResponse load(String id, long createdForId);
+
+    void remove(String id, long createdForId);
+}
@@ -0,0 +1,3 @@
+package me.mrfunny.interactionapi.internal.cache.store;
+
+record StoreKey(String id, long createdForId) {}
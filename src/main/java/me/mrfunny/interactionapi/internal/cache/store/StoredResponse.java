@@ -0,0 +1,10 @@
+package me.mrfunny.interactionapi.internal.cache.store;
+
+/*
+Serialized form of a persistent response. expiresAt is the epoch millisecond when the response should be deleted
+ */
+public record StoredResponse(String className, String id, long createdForId, long expiresAt, byte[] state) {
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
@@ -0,0 +1,41 @@
+package me.mrfunny.interactionapi.internal.cache.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/*
+Binary form of the stored response: [created for id][expires at][id][class name][state]
+ */
+public class StoredResponseCodec {
+    public static byte[] encode(StoredResponse response) {
+        byte[] idBytes = response.id().getBytes(StandardCharsets.UTF_8);
+        byte[] classBytes = response.className().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 8 + 2 + idBytes.length + 2 + classBytes.length + 4 + response.state().length);
+        buffer.putLong(response.createdForId())
+                .putLong(response.expiresAt())
+                .putShort((short) idBytes.length).put(idBytes)
+                .putShort((short) classBytes.length).put(classBytes)
+                .putInt(response.state().length).put(response.state());
+        return buffer.array();
+    }
+
+    public static StoredResponse decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    public static StoredResponse decode(ByteBuffer buffer) {
+        long createdForId = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        String id = readString(buffer);
+        String className = readString(buffer);
+        byte[] state = new byte[buffer.getInt()];
+        buffer.get(state);
+        return new StoredResponse(className, id, createdForId, expiresAt, state);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,149 @@
+package me.mrfunny.interactionapi.internal.data.command;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/*
+Arguments of the command method. Every parameter has a slot with its index: primitives are kept as longs
+(doubles as their raw bits, booleans as 0 and 1), everything else as objects
+ */
+public final class CommandArguments {
+    private static final MethodHandle PRIMITIVES;
+    private static final MethodHandle REFERENCES;
+    private static final MethodHandle AS_INT;
+    private static final MethodHandle AS_DOUBLE;
+    private static final MethodHandle AS_BOOLEAN;
+    private static final MethodHandle INVOKE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PRIMITIVES = lookup.findGetter(CommandArguments.class, "primitives", long[].class);
+            REFERENCES = lookup.findGetter(CommandArguments.class, "references", Object[].class);
+            AS_INT = lookup.findStatic(CommandArguments.class, "asInt", MethodType.methodType(int.class, long.class));
+            AS_DOUBLE = lookup.findStatic(Double.class, "longBitsToDouble", MethodType.methodType(double.class, long.class));
+            AS_BOOLEAN = lookup.findStatic(CommandArguments.class, "asBoolean", MethodType.methodType(boolean.class, long.class));
+            INVOKE = lookup.findVirtual(CommandInvoker.class, "invoke", MethodType.methodType(void.class, Object.class, CommandArguments.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    final long[] primitives;
+    final Object[] references;
+
+    public CommandArguments(int size) {
+        this.primitives = new long[size];
+        this.references = new Object[size];
+    }
+
+    /*
+    Arguments with the references from the template, primitives start at 0
+     */
+    public CommandArguments(Object[] references) {
+        this.primitives = new long[references.length];
+        this.references = references.clone();
+    }
+
+    public void setLong(int slot, long value) {
+        primitives[slot] = value;
+    }
+
+    public void setInt(int slot, int value) {
+        primitives[slot] = value;
+    }
+
+    public void setDouble(int slot, double value) {
+        primitives[slot] = Double.doubleToRawLongBits(value);
+    }
+
+    public void setBoolean(int slot, boolean value) {
+        primitives[slot] = value ? 1 : 0;
+    }
+
+    public void set(int slot, Object value) {
+        references[slot] = value;
+    }
+
+    public Object get(int slot) {
+        return references[slot];
+    }
+
+    public long getLong(int slot) {
+        return primitives[slot];
+    }
+
+    public int getInt(int slot) {
+        return (int) primitives[slot];
+    }
+
+    public double getDouble(int slot) {
+        return Double.longBitsToDouble(primitives[slot]);
+    }
+
+    public boolean getBoolean(int slot) {
+        return primitives[slot] != 0;
+    }
+
+    /*
+    Resolves the method into a handle bound to the instance which declares it, which takes the arguments of the method from their slots
+     */
+    public static MethodHandle createInvoker(Method method, Object instance) {
+        try {
+            method.setAccessible(true);
+            MethodHandle target = MethodHandles.lookup().unreflect(method).bindTo(instance);
+            Class<?>[] types = method.getParameterTypes();
+            MethodHandle[] getters = new MethodHandle[types.length];
+            for(int i = 0; i < types.length; i++) {
+                getters[i] = slotGetter(types[i], i);
+            }
+            target = MethodHandles.filterArguments(target, 0, getters);
+            // every filtered parameter takes the same arguments
+            return MethodHandles.permuteArguments(target.asType(target.type().changeReturnType(void.class)),
+                    MethodType.methodType(void.class, CommandArguments.class), new int[types.length]);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Cannot access the command method " + method.getDeclaringClass().getName() + "#" + method.getName(), e);
+        }
+    }
+
+    /*
+    Same as the invoker of the method, but calls the generated code instead
+     */
+    public static MethodHandle createInvoker(CommandInvoker invoker, Object instance) {
+        return MethodHandles.insertArguments(INVOKE, 0, invoker, instance);
+    }
+
+    private static MethodHandle slotGetter(Class<?> type, int slot) {
+        if(!type.isPrimitive()) {
+            MethodHandle element = MethodHandles.insertArguments(MethodHandles.arrayElementGetter(Object[].class), 1, slot);
+            return MethodHandles.filterArguments(element, 0, REFERENCES).asType(MethodType.methodType(type, CommandArguments.class));
+        }
+        MethodHandle element = MethodHandles.filterArguments(
+                MethodHandles.insertArguments(MethodHandles.arrayElementGetter(long[].class), 1, slot), 0, PRIMITIVES);
+        if(type == long.class) return element;
+        if(type == int.class) return MethodHandles.filterReturnValue(element, AS_INT);
+        if(type == double.class) return MethodHandles.filterReturnValue(element, AS_DOUBLE);
+        if(type == boolean.class) return MethodHandles.filterReturnValue(element, AS_BOOLEAN);
+        throw new IllegalArgumentException(type.getName() + " is not supported by JDA");
+    }
+
+    private static int asInt(long value) {
+        return (int) value;
+    }
+
+    private static boolean asBoolean(long value) {
+        return value != 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for(int i = 0; i < references.length; i++) {
+            if(i != 0) builder.append(", ");
+            builder.append(references[i] != null ? references[i] : primitives[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -3,35 +3,33 @@ package me.mrfunny.interactionapi.internal.data.command;
 import me.mrfunny.interactionapi.CommandManager;
 import me.mrfunny.interactionapi.commands.slash.SlashCommandInvocation;
 import me.mrfunny.interactionapi.commands.slash.SubcommandGroupData;
-import me.mrfunny.interactionapi.internal.wrapper.util.ParameterMapper;
-import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import me.mrfunny.interactionapi.internal.InteractionPipeline;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.lang.invoke.MethodHandle;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class CommandExecutor {
     private final String name;
-    private final Method callingMethod;
+    // bound to the command or group instance, takes the arguments from their slots
+    private final MethodHandle invoker;
     private final CommandParameters parameters;
     private final RegisteredCommand source;
     private final String description;
     private final int contextArgumentIndex;
-    private final boolean sync;
+    private final InteractionPipeline.Mode mode;
     private final SubcommandGroupData group;
 
-    public CommandExecutor(RegisteredCommand source, String name, SubcommandGroupData group, String description, Method callingMethod, CommandParameters parameters, int contextArgumentIndex, boolean sync) {
+    public CommandExecutor(RegisteredCommand source, String name, SubcommandGroupData group, String description, MethodHandle invoker, CommandParameters parameters, int contextArgumentIndex, InteractionPipeline.Mode mode) {
         this.name = name;
         this.description = description;
-        this.callingMethod = callingMethod;
+        this.invoker = invoker;
         this.parameters = parameters;
 
         this.source = source;
-        this.sync = sync;
+        this.mode = mode;
         this.contextArgumentIndex = contextArgumentIndex;
         this.group = group;
     }
@@ -52,26 +50,21 @@ public class CommandExecutor {
         return description;
     }
 
-    public void execute(CommandManager manager, SlashCommandInteractionEvent event) {
-        if(!sync) {
-            execute0(manager, event);
-            return;
-        }
-        CommandManager.getAsyncExecutor().execute(() -> execute0(manager, event));
+    /**
+     * @return Thread and order the command is executed with
+     */
+    public InteractionPipeline.Mode getMode() {
+        return mode;
     }
 
-    private void execute0(CommandManager manager, SlashCommandInteractionEvent event) {
+    /*
+    Calls the method of the command on the current thread, the thread is chosen by the InteractionPipeline
+     */
+    public void execute(CommandManager manager, SlashCommandInvocation invocation) {
         try {
-            callingMethod.setAccessible(true);
-            Object source;
-            if(group != null) {
-                source = group.source();
-            } else {
-                source = this.source.getCommandBlueprint();
-            }
-            callingMethod.invoke(source, injectInvokeArgs(manager, event, event.getOptions()));
-        } catch (IllegalAccessException | InvocationTargetException | IllegalArgumentException e) {
-            System.err.println(e.getMessage());
+            invoker.invokeExact(injectInvokeArgs(manager, invocation, invocation.getInteraction().getOptions()));
+        } catch (Throwable e) {
+            System.err.println("Failed executing command " + this.source.getName() + " " + name + ": " + e.getMessage());
             e.printStackTrace();
         }
     }
@@ -80,47 +73,17 @@ public class CommandExecutor {
         return parameters;
     }
 
-    public Object[] injectInvokeArgs(CommandManager manager, SlashCommandInteractionEvent context, List<OptionMapping> arguments) {
-        Object[] result = new Object[parameters.size() + 1];
-        int filled = 0;
+    public CommandArguments injectInvokeArgs(CommandManager manager, SlashCommandInvocation invocation, List<OptionMapping> arguments) {
+        CommandArguments result = parameters.createArguments();
         for(OptionMapping option : arguments) {
             CommandParameter toInject = parameters.get(option.getName());
-            try {
-                Object injecting = toInject.map(option);
-                if(toInject.usesEnum()) {
-                    for(Object rawConstant : toInject.getPredefinedChoicesType().getEnumConstants()) {
-                        Enum<?> constant = (Enum<?>) rawConstant;
-                        if(!constant.name().equals(injecting.toString())) continue;
-                        injecting = constant;
-                        break;
-                    }
-                }
-//                objectToIndexMap.put(injecting, toInject.getParameterArgumentIndex());
-                result[toInject.getParameterArgumentIndex()] = injecting;
-                filled++;
-            } catch (InvocationTargetException | IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        if(filled != (result.length - 1)) {
-            for(CommandParameter javaParameter : parameters) {
-                int i = javaParameter.getParameterArgumentIndex();
-                if(i == contextArgumentIndex) continue;
-                Object parameter = result[i];
-                if(parameter instanceof SlashCommandInvocation) continue;
-                if(parameter != null) continue;
-                Class<?> type = javaParameter.getJavaParameter().getType();
-                result[i] = ParameterMapper.mapTypeToNull(type);
-                if(manager.isDebug()) {
-                    System.out.println("Mapped null parameter " + javaParameter.getName() + " into " + result[i] +" with target type of " + type.getName());
-                }
-            }
+            if(toInject == null) continue;
+            toInject.bind(option, result);
         }
 
-        result[contextArgumentIndex] = new SlashCommandInvocation(context);
+        result.set(contextArgumentIndex, invocation);
         if(manager.isDebug()) {
-            System.out.println("[DEBUG] Processing interaction arguments: " + Arrays.toString(result));
+            System.out.println("[DEBUG] Processing interaction arguments: " + result);
         }
         return result;
     }
@@ -0,0 +1,9 @@
+package me.mrfunny.interactionapi.internal.data.command;
+
+/*
+Calls the command method of the instance with the arguments taken from their slots, implemented by the generated resolvers
+ */
+@FunctionalInterface
+public interface CommandInvoker {
+    void invoke(Object instance, CommandArguments arguments) throws Throwable;
+}
@@ -4,50 +4,55 @@ import me.mrfunny.interactionapi.internal.wrapper.util.ParameterMapper;
 import me.mrfunny.interactionapi.util.HumanReadableEnum;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class CommandParameter {
     private final String name;
-    private final Parameter javaParameter;
+    private final Class<?> type;
     private final int parameterArgumentIndex;
-    private final Method mapperMethod; // method of OptionMapping which will map our argument to needed type
+    private final OptionBinder binder; // writes the option into the argument of the needed type
     private final boolean isRequired;
     private final String description;
     private final HashMap<String, Object> predefinedChoices = new HashMap<>();
     private Class<?> predefinedChoicesType = null;
     private boolean usesEnum = false;
+    // enum constants by their names in the declaration order, built once and never changed
+    private Map<String, Enum<?>> enumConstants = Map.of();
 
-    public CommandParameter(String name, String description, boolean isRequired, Parameter parameter, int parameterArgumentIndex) {
-        this.javaParameter = parameter;
+    public CommandParameter(String name, String description, boolean isRequired, Class<?> type, int parameterArgumentIndex) {
+        this.type = type;
         this.description = description;
         this.isRequired = isRequired;
         this.parameterArgumentIndex = parameterArgumentIndex;
         this.name = name;
-        Class<?> parameterType = parameter.getType();
-        try {
-            this.mapperMethod = ParameterMapper.mapParameter(parameterType); // remapping the java type to the JDA type and giving the error if there is not needed class found
-        } catch (Exception exception) {
-            throw new RuntimeException(exception);
-        }
-
+        Class<?> parameterType = type;
         if(parameterType.isEnum()) {
             usesEnum = true;
             predefinedChoicesType = parameterType;
+            LinkedHashMap<String, Enum<?>> constants = new LinkedHashMap<>();
             for(Object constantRaw : parameterType.getEnumConstants()) {
-                String resultName;
                 Enum<?> constant = (Enum<?>) constantRaw;
-                if(constantRaw instanceof HumanReadableEnum readable) {
-                    resultName = readable.humanReadable();
-                } else {
-                    resultName = capitalise(constant.name().replaceAll("_", " "));
-                }
-
-                predefinedChoices.put(resultName, constant.name());
+                constants.put(constant.name(), constant);
             }
+            this.enumConstants = Collections.unmodifiableMap(constants);
+            Map<String, Enum<?>> lookup = this.enumConstants;
+            this.binder = (mapping, arguments, slot) -> arguments.set(slot, lookup.get(mapping.getAsString()));
+        } else {
+            this.binder = ParameterMapper.mapParameter(parameterType); // remapping the java type to the JDA type and giving the error if there is not needed class found
+        }
+    }
+
+    /*
+    Name of the choice which is shown to the user for the enum constant
+     */
+    public static String choiceName(Enum<?> constant) {
+        if(constant instanceof HumanReadableEnum readable) {
+            return readable.humanReadable();
         }
+        return capitalise(constant.name().replaceAll("_", " "));
     }
 
     private static String capitalise(String s) {
@@ -71,6 +76,13 @@ public class CommandParameter {
         predefinedChoices.put(object.toString(), object);
     }
 
+    /**
+     * @return Constants of the enum parameter by their names, empty if the parameter is not an enum
+     */
+    public Map<String, Enum<?>> getEnumConstants() {
+        return enumConstants;
+    }
+
     public HashMap<String, Object> getPredefinedChoices() {
         return predefinedChoices;
     }
@@ -87,16 +99,19 @@ public class CommandParameter {
         return description;
     }
 
-    public Object map(OptionMapping mapping) throws InvocationTargetException, IllegalAccessException {
-        return mapperMethod.invoke(mapping);
+    public void bind(OptionMapping mapping, CommandArguments arguments) {
+        binder.bind(mapping, arguments, parameterArgumentIndex);
     }
 
     public int getParameterArgumentIndex() {
         return parameterArgumentIndex;
     }
 
-    public Parameter getJavaParameter() {
-        return javaParameter;
+    /**
+     * @return Java type of the parameter of the method
+     */
+    public Class<?> getType() {
+        return type;
     }
 
     public String getName() {
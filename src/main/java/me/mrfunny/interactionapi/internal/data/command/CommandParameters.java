@@ -1,14 +1,58 @@
 package me.mrfunny.interactionapi.internal.data.command;
 
-import java.util.ArrayList;
+import me.mrfunny.interactionapi.internal.wrapper.util.ParameterMapper;
 
-public class CommandParameters extends ArrayList<CommandParameter> {
-    public CommandParameter get(String name) {
-        for(CommandParameter parameter : this) {
-            if(parameter.getName().equals(name)) {
-                return parameter;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/*
+Parameters of the command method, indexed by their option names. Values of the missing options are prepared once per slot,
+so binding the arguments only walks the options which were sent
+ */
+public final class CommandParameters implements Iterable<CommandParameter> {
+    private final List<CommandParameter> parameters;
+    private final Map<String, CommandParameter> byName;
+    private final Object[] defaults;
+
+    /**
+     * @param slots Amount of the parameters of the method, including the ones which are not options
+     */
+    public CommandParameters(List<CommandParameter> parameters, int slots) {
+        this.parameters = List.copyOf(parameters);
+        HashMap<String, CommandParameter> byName = new HashMap<>();
+        this.defaults = new Object[slots];
+        for(CommandParameter parameter : this.parameters) {
+            if(byName.put(parameter.getName(), parameter) != null) {
+                throw new IllegalArgumentException("Command has 2 parameters with name " + parameter.getName());
+            }
+            Class<?> type = parameter.getType();
+            // primitives are 0 or false in their slots
+            if(!type.isPrimitive()) {
+                defaults[parameter.getParameterArgumentIndex()] = ParameterMapper.mapTypeToNull(type);
             }
         }
-        return null;
+        this.byName = Map.copyOf(byName);
+    }
+
+    public CommandParameter get(String name) {
+        return byName.get(name);
+    }
+
+    public int size() {
+        return parameters.size();
+    }
+
+    /*
+    Arguments with the values of the missing options already in their slots
+     */
+    public CommandArguments createArguments() {
+        return new CommandArguments(defaults);
+    }
+
+    @Override
+    public Iterator<CommandParameter> iterator() {
+        return parameters.iterator();
     }
 }
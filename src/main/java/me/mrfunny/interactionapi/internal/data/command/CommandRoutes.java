@@ -0,0 +1,44 @@
+package me.mrfunny.interactionapi.internal.data.command;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+Executors of the slash commands by the full path of the command: name, subcommand group and subcommand, the last two
+being null when the command doesn't have them. The table is replaced as a whole when a command is registered,
+so handling the interaction is a single lookup in an immutable map.
+The path is used instead of the command id, because guild commands have a different id in every guild.
+It's kept as the parts the interaction already has, building the full command name for every event costs more than the lookup
+ */
+public class CommandRoutes {
+    private volatile Map<Route, CommandExecutor> routes = Map.of();
+
+    public synchronized void add(RegisteredCommand command) {
+        HashMap<Route, CommandExecutor> updated = new HashMap<>(routes);
+        // routes of the command registered with the same name before are replaced
+        String name = command.getName();
+        updated.keySet().removeIf(route -> route.name().equals(name));
+        if(command.getMainExecutor() != null) {
+            updated.put(new Route(name, null, null), command.getMainExecutor());
+        }
+        for(CommandExecutor subcommand : command.getSubcommands()) {
+            updated.put(new Route(name, null, subcommand.getName()), subcommand);
+        }
+        for(RegisteredGroup group : command.getGroups().values()) {
+            for(CommandExecutor executor : group.executors().values()) {
+                updated.put(new Route(name, group.data().name(), executor.getName()), executor);
+            }
+        }
+        this.routes = Map.copyOf(updated);
+    }
+
+    public CommandExecutor get(String name, String subcommandGroup, String subcommandName) {
+        return routes.get(new Route(name, subcommandGroup, subcommandName));
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    private record Route(String name, String group, String subcommand) {}
+}
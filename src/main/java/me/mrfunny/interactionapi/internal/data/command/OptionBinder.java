@@ -0,0 +1,11 @@
+package me.mrfunny.interactionapi.internal.data.command;
+
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+
+/*
+Writes the value of the option into the slot of the argument, primitives are written without boxing
+ */
+@FunctionalInterface
+public interface OptionBinder {
+    void bind(OptionMapping mapping, CommandArguments arguments, int slot);
+}
@@ -0,0 +1,10 @@
+package me.mrfunny.interactionapi.internal.generated;
+
+import java.util.List;
+
+/*
+Implemented by the classes which InteractionProcessor generates for every class with @Main or @Subcommand methods
+ */
+public interface GeneratedCommand {
+    List<GeneratedExecutable> executables();
+}
@@ -0,0 +1,17 @@
+package me.mrfunny.interactionapi.internal.generated;
+
+import me.mrfunny.interactionapi.internal.InteractionPipeline;
+import me.mrfunny.interactionapi.internal.data.command.CommandInvoker;
+
+import java.util.List;
+
+/**
+ * Command method read from the source by the annotation processor
+ * @param main Whether the method is marked with @Main, otherwise it is a subcommand
+ * @param name Name of the subcommand, already defaulted to the name of the method
+ * @param slots Amount of the parameters of the method
+ * @param contextArgumentIndex Index of the SlashCommandInvocation parameter
+ * @param mode Mode declared on the method, null if the mode of the class is used
+ */
+public record GeneratedExecutable(boolean main, String name, String description, int slots, int contextArgumentIndex,
+                                  List<GeneratedParameter> parameters, InteractionPipeline.Mode mode, CommandInvoker invoker) {}
@@ -0,0 +1,12 @@
+package me.mrfunny.interactionapi.internal.generated;
+
+import me.mrfunny.interactionapi.internal.wrapper.ModalFieldBinding;
+
+import java.util.List;
+
+/*
+Implemented by the classes which InteractionProcessor generates for every modal with @ModalFieldData fields
+ */
+public interface GeneratedModal {
+    List<ModalFieldBinding> fields();
+}
@@ -0,0 +1,8 @@
+package me.mrfunny.interactionapi.internal.generated;
+
+/**
+ * Option of the command method, with the values of @Parameter or the defaults if it is not present
+ * @param index Index of the parameter in the method
+ */
+public record GeneratedParameter(int index, Class<?> type, String name, String description, boolean required,
+                                 String[] stringChoices, long[] longChoices) {}
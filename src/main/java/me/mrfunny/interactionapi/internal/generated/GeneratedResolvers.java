@@ -0,0 +1,49 @@
+package me.mrfunny.interactionapi.internal.generated;
+
+import java.util.Optional;
+
+/*
+Finds the code generated by InteractionProcessor for the class. The generated class is placed next to the class it was generated for,
+with the suffix after its name, and is looked up once per class. Classes which were compiled without the processor are resolved with reflection
+ */
+public class GeneratedResolvers {
+    public static final String COMMAND_SUFFIX = "$$InteractionResolver";
+    public static final String MODAL_SUFFIX = "$$ModalBinder";
+
+    private static final ClassValue<Optional<GeneratedCommand>> commands = new ClassValue<>() {
+        @Override
+        protected Optional<GeneratedCommand> computeValue(Class<?> type) {
+            return load(type, COMMAND_SUFFIX, GeneratedCommand.class);
+        }
+    };
+    private static final ClassValue<Optional<GeneratedModal>> modals = new ClassValue<>() {
+        @Override
+        protected Optional<GeneratedModal> computeValue(Class<?> type) {
+            return load(type, MODAL_SUFFIX, GeneratedModal.class);
+        }
+    };
+
+    /*
+    Null if the class was compiled without the processor
+     */
+    public static GeneratedCommand command(Class<?> type) {
+        return commands.get(type).orElse(null);
+    }
+
+    public static GeneratedModal modal(Class<?> type) {
+        return modals.get(type).orElse(null);
+    }
+
+    private static <T> Optional<T> load(Class<?> type, String suffix, Class<T> kind) {
+        try {
+            Class<?> generated = Class.forName(type.getName() + suffix, true, type.getClassLoader());
+            return Optional.of(kind.cast(generated.getDeclaredConstructor().newInstance()));
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            System.err.println("Failed to load the generated code of " + type.getName() + ", falling back to reflection: " + e.getMessage());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+}
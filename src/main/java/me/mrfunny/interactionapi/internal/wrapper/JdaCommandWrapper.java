@@ -55,7 +55,7 @@ public class JdaCommandWrapper {
         ArrayList<OptionData> result = new ArrayList<>(commandParameters.size());
         for(CommandParameter parameter : commandParameters) {
             OptionData data = new OptionData(
-                    ParameterMapper.mapParameterToType(parameter.getJavaParameter().getType()),
+                    ParameterMapper.mapParameterToType(parameter.getType()),
                     parameter.getName(),
                     parameter.getDescription(),
                     parameter.isRequired()
@@ -63,6 +63,12 @@ public class JdaCommandWrapper {
             result.add(data);
 
             // processing other things
+            if(parameter.usesEnum()) {
+                for(Enum<?> constant : parameter.getEnumConstants().values()) {
+                    data.addChoice(CommandParameter.choiceName(constant), constant.name());
+                }
+                continue;
+            }
             HashMap<String, Object> choices = parameter.getPredefinedChoices();
             if(choices.isEmpty()) continue;
             Class<?> choiceType = parameter.getPredefinedChoicesType();
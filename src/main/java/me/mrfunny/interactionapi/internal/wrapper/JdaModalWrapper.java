@@ -1,78 +1,34 @@
 package me.mrfunny.interactionapi.internal.wrapper;
 
-import me.mrfunny.interactionapi.annotation.ModalFieldData;
-import me.mrfunny.interactionapi.modals.ModalField;
 import me.mrfunny.interactionapi.modals.ModalFieldImpl;
 import me.mrfunny.interactionapi.modals.Modal;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
-import net.dv8tion.jda.api.interactions.components.text.TextInput;
 import net.dv8tion.jda.api.interactions.modals.ModalMapping;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.List;
 
 public class JdaModalWrapper {
-    public static net.dv8tion.jda.api.interactions.modals.Modal buildModalToRun(Modal modal) throws Exception {
+    public static net.dv8tion.jda.api.interactions.modals.Modal buildModalToRun(Modal modal) {
         net.dv8tion.jda.api.interactions.modals.Modal.Builder modalBuilder = net.dv8tion.jda.api.interactions.modals.Modal.create(modal.getId(), modal.getTitle());
-        ArrayList<Field> fields = new ArrayList<>();
-        for(Field field : modal.getClass().getDeclaredFields()) {
-            if(field.getType().getName().equals(ModalField.class.getName())) {
-
-                ModalFieldData modalFieldData = field.getAnnotation(ModalFieldData.class);
-                if(modalFieldData == null) continue;
-//                if((field.getModifiers() & Modifier.FINAL) == 0) {
-//                    throw new RuntimeException("Field " + field.getDeclaringClass().getName() + "#" + field.getName() + " should be final!");
-//                }
-
-                // doing magic with reflection or setting a value to the private field
-                field.setAccessible(true);
-                String id = modalFieldData.id();
-                if(id.equals("")) {
-                    id = field.getName();
-                }
-                ModalFieldImpl modalField = new ModalFieldImpl()
-                        .setId(id)
-                        .setLabel(modalFieldData.label())
-                        .setInputStyle(modalFieldData.style())
-                        .setMinLength(modalFieldData.minLength())
-                        .setMaxLength(modalFieldData.maxLength())
-                        .setRequired(modalFieldData.required());
-                String placeholder = modalFieldData.placeholder();
-                String defaultValue = modalFieldData.defaultValue();
-                if(!placeholder.equals("")) {
-                    modalField.setPlaceholder(placeholder);
-                }
-
-                if(!defaultValue.equals("")) {
-                    modalField.setValue(defaultValue);
-                }
-                field.set(modal, modalField);
-                fields.add(field);
-                modal.getFields().put(id, field);
-            }
+        ModalSchema schema = ModalSchema.of(modal.getClass());
+        List<ModalFieldBinding> fields = schema.getFields();
+        for(int i = 0; i < fields.size(); i++) {
+            fields.get(i).setter().accept(modal, schema.createField(i));
         }
         modal.onInit();
-        for(Field javaField : fields) {
-            ModalFieldImpl field = (ModalFieldImpl) javaField.get(modal);
-            modalBuilder.addActionRow(TextInput.create(field.getId(), field.getLabel(), field.getInputStyle())
-                    .setPlaceholder(field.getPlaceholder())
-                    .setMinLength(field.getMinLength())
-                    .setMaxLength(field.getMaxLength())
-                    .setRequired(field.isRequired()).build());
-
+        for(int i = 0; i < fields.size(); i++) {
+            ModalFieldImpl field = (ModalFieldImpl) fields.get(i).getter().apply(modal);
+            modalBuilder.addActionRow(schema.createTextInput(i, field));
         }
         return modalBuilder.build();
     }
 
-    public static void mapAfterRun(ModalInteractionEvent modalInteractionEvent, Modal response) throws IllegalAccessException {
-        Map<String, ModalMapping> map = modalInteractionEvent.getValues().stream().collect(Collectors.toMap(ModalMapping::getId, m -> m));
-        for(Map.Entry<String, Field> classField : response.getFields().entrySet()) {
-            Field field = classField.getValue();
-            ModalMapping mapping = map.get(classField.getKey());
-            if(mapping == null) continue;
-            ModalFieldImpl modalField = (ModalFieldImpl) field.get(response);
+    public static void mapAfterRun(ModalInteractionEvent modalInteractionEvent, Modal response) {
+        ModalSchema schema = ModalSchema.of(response.getClass());
+        for(ModalMapping mapping : modalInteractionEvent.getValues()) {
+            ModalFieldBinding binding = schema.getFieldsById().get(mapping.getId());
+            if(binding == null) continue;
+            ModalFieldImpl modalField = (ModalFieldImpl) binding.getter().apply(response);
             if(modalField == null) continue;
             modalField.setValue(mapping.getAsString());
         }
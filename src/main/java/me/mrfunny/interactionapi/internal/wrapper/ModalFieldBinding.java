@@ -0,0 +1,17 @@
+package me.mrfunny.interactionapi.internal.wrapper;
+
+import me.mrfunny.interactionapi.modals.Modal;
+import me.mrfunny.interactionapi.modals.ModalField;
+import net.dv8tion.jda.api.interactions.components.text.TextInputStyle;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Field of the modal with the values of its @ModalFieldData, and the access to the field on the modal instance
+ * @param id Id of the text input, already defaulted to the name of the field
+ * @param fieldName Name of the field in the modal class
+ */
+public record ModalFieldBinding(String id, String fieldName, String label, TextInputStyle style, int minLength, int maxLength, boolean required,
+                                String defaultValue, String placeholder,
+                                Function<Modal, ModalField> getter, BiConsumer<Modal, ModalField> setter) {}
@@ -0,0 +1,162 @@
+package me.mrfunny.interactionapi.internal.wrapper;
+
+import me.mrfunny.interactionapi.annotation.ModalFieldData;
+import me.mrfunny.interactionapi.internal.generated.GeneratedModal;
+import me.mrfunny.interactionapi.internal.generated.GeneratedResolvers;
+import me.mrfunny.interactionapi.modals.Modal;
+import me.mrfunny.interactionapi.modals.ModalField;
+import me.mrfunny.interactionapi.modals.ModalFieldImpl;
+import net.dv8tion.jda.api.interactions.components.text.TextInput;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/*
+Fields of the modal class, resolved once per class. Classes compiled without InteractionProcessor are scanned with reflection
+and their fields are accessed with var handles. Text inputs of the fields are built once too, and are shared by all the modals
+whose fields were not changed in onInit
+ */
+public final class ModalSchema {
+    private static final ClassValue<ModalSchema> schemas = new ClassValue<>() {
+        @Override
+        protected ModalSchema computeValue(Class<?> type) {
+            return new ModalSchema(type.asSubclass(Modal.class));
+        }
+    };
+
+    private final List<ModalFieldBinding> fields;
+    private final Map<String, ModalFieldBinding> byId;
+    private final TextInput[] templates;
+
+    private ModalSchema(Class<? extends Modal> modalClass) {
+        GeneratedModal generated = GeneratedResolvers.modal(modalClass);
+        this.fields = List.copyOf(generated != null ? generated.fields() : reflectFields(modalClass));
+        LinkedHashMap<String, ModalFieldBinding> byId = new LinkedHashMap<>();
+        this.templates = new TextInput[fields.size()];
+        for(int i = 0; i < fields.size(); i++) {
+            ModalFieldBinding binding = fields.get(i);
+            byId.put(binding.id(), binding);
+            templates[i] = TextInput.create(binding.id(), binding.label(), binding.style())
+                    .setPlaceholder(placeholder(binding))
+                    .setMinLength(binding.minLength())
+                    .setMaxLength(binding.maxLength())
+                    .setRequired(binding.required()).build();
+        }
+        this.byId = Collections.unmodifiableMap(byId);
+    }
+
+    public static ModalSchema of(Class<? extends Modal> modalClass) {
+        return schemas.get(modalClass);
+    }
+
+    public List<ModalFieldBinding> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return Fields by the ids of their text inputs
+     */
+    public Map<String, ModalFieldBinding> getFieldsById() {
+        return byId;
+    }
+
+    /*
+    New value of the field, as declared by its annotation
+     */
+    public ModalFieldImpl createField(int index) {
+        ModalFieldBinding binding = fields.get(index);
+        ModalFieldImpl field = new ModalFieldImpl()
+                .setId(binding.id())
+                .setLabel(binding.label())
+                .setInputStyle(binding.style())
+                .setMinLength(binding.minLength())
+                .setMaxLength(binding.maxLength())
+                .setRequired(binding.required())
+                .setPlaceholder(placeholder(binding));
+        if(!binding.defaultValue().equals("")) {
+            field.setValue(binding.defaultValue());
+        }
+        return field;
+    }
+
+    /*
+    Text input of the field, the prebuilt one if the field still looks as declared
+     */
+    public TextInput createTextInput(int index, ModalField field) {
+        TextInput template = templates[index];
+        if(field.getId().equals(template.getId())
+                && field.getLabel().equals(template.getLabel())
+                && field.getInputStyle() == template.getStyle()
+                && field.getMinLength() == template.getMinLength()
+                && field.getMaxLength() == template.getMaxLength()
+                && field.isRequired() == template.isRequired()
+                && Objects.equals(field.getPlaceholder(), template.getPlaceHolder())) {
+            return template;
+        }
+        return TextInput.create(field.getId(), field.getLabel(), field.getInputStyle())
+                .setPlaceholder(field.getPlaceholder())
+                .setMinLength(field.getMinLength())
+                .setMaxLength(field.getMaxLength())
+                .setRequired(field.isRequired()).build();
+    }
+
+    private static String placeholder(ModalFieldBinding binding) {
+        return binding.placeholder().equals("") ? null : binding.placeholder();
+    }
+
+    private static List<ModalFieldBinding> reflectFields(Class<? extends Modal> modalClass) {
+        ArrayList<ModalFieldBinding> fields = new ArrayList<>();
+        for(Field field : modalClass.getDeclaredFields()) {
+            if(field.getType() != ModalField.class) continue;
+            ModalFieldData modalFieldData = field.getAnnotation(ModalFieldData.class);
+            if(modalFieldData == null) continue;
+            String id = modalFieldData.id();
+            if(id.equals("")) {
+                id = field.getName();
+            }
+            fields.add(new ModalFieldBinding(id, field.getName(), modalFieldData.label(), modalFieldData.style(), modalFieldData.minLength(), modalFieldData.maxLength(),
+                    modalFieldData.required(), modalFieldData.defaultValue(), modalFieldData.placeholder(),
+                    getter(field), setter(field)));
+        }
+        return fields;
+    }
+
+    private static Function<Modal, ModalField> getter(Field field) {
+        VarHandle handle = varHandle(field);
+        return modal -> (ModalField) handle.get(modal);
+    }
+
+    private static BiConsumer<Modal, ModalField> setter(Field field) {
+        if(Modifier.isFinal(field.getModifiers())) {
+            // var handles of the final fields are read-only, reflection can still set them
+            field.setAccessible(true);
+            return (modal, value) -> {
+                try {
+                    field.set(modal, value);
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException(e);
+                }
+            };
+        }
+        VarHandle handle = varHandle(field);
+        return (modal, value) -> handle.set(modal, value);
+    }
+
+    private static VarHandle varHandle(Field field) {
+        try {
+            return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Cannot access the field " + field.getDeclaringClass().getName() + "#" + field.getName(), e);
+        }
+    }
+}
@@ -3,16 +3,22 @@ package me.mrfunny.interactionapi.internal.wrapper.resolver;
 import me.mrfunny.interactionapi.annotation.Main;
 import me.mrfunny.interactionapi.annotation.Parameter;
 import me.mrfunny.interactionapi.annotation.Subcommand;
-import me.mrfunny.interactionapi.annotation.Sync;
 import me.mrfunny.interactionapi.commands.slash.SlashCommand;
 import me.mrfunny.interactionapi.commands.slash.SlashCommandInvocation;
 import me.mrfunny.interactionapi.commands.slash.SubcommandGroup;
 import me.mrfunny.interactionapi.commands.slash.SubcommandGroupData;
+import me.mrfunny.interactionapi.internal.InteractionPipeline;
 import me.mrfunny.interactionapi.internal.data.command.*;
+import me.mrfunny.interactionapi.internal.generated.GeneratedCommand;
+import me.mrfunny.interactionapi.internal.generated.GeneratedExecutable;
+import me.mrfunny.interactionapi.internal.generated.GeneratedParameter;
+import me.mrfunny.interactionapi.internal.generated.GeneratedResolvers;
 import me.mrfunny.interactionapi.internal.wrapper.resolver.interfaces.ComplexResolver;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 public class SlashCommandResolver implements ComplexResolver<RegisteredCommand> {
     private final Class<?> commandClass;
@@ -32,38 +38,70 @@ public class SlashCommandResolver implements ComplexResolver<RegisteredCommand>
 
     private void resolveExecutables() {
         boolean gotMain = false;
-        for(Method method : commandClass.getMethods()) {
-            if(method.isAnnotationPresent(Main.class)) {
+        for(DeclaredExecutable declared : declaredExecutables(source, null)) {
+            if(declared.main()) {
                 if(gotMain) throw new IllegalStateException("Class " + commandClass.getName() + " has 2 or more main executable methods");
-                command.setMainExecutor(resolveExecutable(method, null));
+                command.setMainExecutor(declared.executor());
                 gotMain = true;
                 continue;
             }
-            if(!method.isAnnotationPresent(Subcommand.class)) continue;
             if(gotMain) {
                 throw new RuntimeException("Command can't have main executor and subcommands");
             }
-            command.addSubcommand(resolveExecutable(method, null));
+            command.addSubcommand(declared.executor());
         }
 
         for(SubcommandGroup group : source.subcommands()) {
             SubcommandGroupData data = new SubcommandGroupData(group.name(), group.description(), group);
             HashMap<String, CommandExecutor> executors = new HashMap<>();
-            for(Method method : group.getClass().getMethods()) {
-                if(method.isAnnotationPresent(Main.class)) {
+            for(DeclaredExecutable declared : declaredExecutables(group, data)) {
+                if(declared.main()) {
                     throw new RuntimeException("Cannot have Main method for group. Declared in " + commandClass.getName() + ", " + group.getClass().getName());
                 }
-                if(!method.isAnnotationPresent(Subcommand.class)) continue;
-                CommandExecutor executor = resolveExecutable(method, data);
-                executors.put(executor.getName(), executor);
+                executors.put(declared.executor().getName(), declared.executor());
             }
             command.addGroup(new RegisteredGroup(data, executors));
         }
     }
 
+    private record DeclaredExecutable(boolean main, CommandExecutor executor) {}
+
+    /*
+    Executables of the command or group instance, read from the code generated by InteractionProcessor if the class was compiled with it
+     */
+    private List<DeclaredExecutable> declaredExecutables(Object instance, SubcommandGroupData group) {
+        ArrayList<DeclaredExecutable> result = new ArrayList<>();
+        GeneratedCommand generated = GeneratedResolvers.command(instance.getClass());
+        if(generated != null) {
+            for(GeneratedExecutable executable : generated.executables()) {
+                result.add(new DeclaredExecutable(executable.main(), resolveGenerated(executable, instance, group)));
+            }
+            return result;
+        }
+        for(Method method : instance.getClass().getMethods()) {
+            if(method.isAnnotationPresent(Main.class)) {
+                result.add(new DeclaredExecutable(true, resolveExecutable(method, group)));
+            } else if(method.isAnnotationPresent(Subcommand.class)) {
+                result.add(new DeclaredExecutable(false, resolveExecutable(method, group)));
+            }
+        }
+        return result;
+    }
+
+    private CommandExecutor resolveGenerated(GeneratedExecutable executable, Object instance, SubcommandGroupData group) {
+        ArrayList<CommandParameter> parameters = new ArrayList<>(executable.parameters().size());
+        for(GeneratedParameter parameter : executable.parameters()) {
+            parameters.add(createParameter(parameter.name(), parameter.description(), parameter.required(), parameter.stringChoices(),
+                    parameter.longChoices(), parameter.type(), parameter.index(), executable.name() + " in " + instance.getClass().getName()));
+        }
+        InteractionPipeline.Mode mode = executable.mode() != null ? executable.mode() : InteractionPipeline.modeOf(instance);
+        return new CommandExecutor(this.command, executable.name(), group, executable.description(), CommandArguments.createInvoker(executable.invoker(), instance),
+                new CommandParameters(parameters, executable.slots()), executable.contextArgumentIndex(), mode);
+    }
+
     private CommandExecutor resolveExecutable(Method method, SubcommandGroupData group) {
 
-        CommandParameters parameters = new CommandParameters();
+        ArrayList<CommandParameter> parameters = new ArrayList<>();
         java.lang.reflect.Parameter[] methodParameters = method.getParameters();
         int contextArgumentIndex = -1;
         for (int i = 0; i < methodParameters.length; i++) {
@@ -93,7 +131,7 @@ public class SlashCommandResolver implements ComplexResolver<RegisteredCommand>
         if(description == null || description.equals("")) {
             description = "No description provided.";
         }
-        return new CommandExecutor(this.command, name, group, description, method, parameters, contextArgumentIndex, method.isAnnotationPresent(Sync.class));
+        return new CommandExecutor(this.command, name, group, description, CommandArguments.createInvoker(method, group == null ? source : group.source()), new CommandParameters(parameters, methodParameters.length), contextArgumentIndex, InteractionPipeline.Mode.of(method, (group == null ? source : group.source()).getClass()));
     }
 
     private static CommandParameter resolveParameter(java.lang.reflect.Parameter param, int index) {
@@ -114,11 +152,16 @@ public class SlashCommandResolver implements ComplexResolver<RegisteredCommand>
             description = "No description provided.";
             required = true;
         }
+        return createParameter(name, description, required, stringChoices, longChoices, param.getType(), index,
+                param.getDeclaringExecutable().getName() + " in " + param.getDeclaringExecutable().getDeclaringClass().getName());
+    }
+
+    private static CommandParameter createParameter(String name, String description, boolean required, String[] stringChoices, long[] longChoices, Class<?> type, int index, String method) {
         if(stringChoices.length > 0 && longChoices.length > 0) {
             throw new IllegalArgumentException("Parameter declaration has long and string predefined choices\n" +
-                    "Method: " + param.getDeclaringExecutable().getName() + " in " + param.getDeclaringExecutable().getDeclaringClass().getName());
+                    "Method: " + method);
         }
-        CommandParameter result = new CommandParameter(name, description, required, param, index);
+        CommandParameter result = new CommandParameter(name, description, required, type, index);
 
         if(stringChoices.length > 0) {
             for(String choice : stringChoices) {
@@ -1,11 +1,9 @@
 package me.mrfunny.interactionapi.internal.wrapper.util;
 
+import me.mrfunny.interactionapi.internal.data.command.OptionBinder;
 import net.dv8tion.jda.api.interactions.commands.Command;
-import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 
-import java.lang.reflect.Method;
-
 public class ParameterMapper {
 
     private final static String STRING_CLASS_NAME = "java.lang.String";
@@ -16,21 +14,24 @@ public class ParameterMapper {
     private final static String ROLE_CLASS_NAME = "net.dv8tion.jda.api.entities.Role";
     private final static String CHANNEL_CLASS_NAME = "net.dv8tion.jda.api.entities.channel.unions.GuildChannelUnion";
 
-    public static Method mapParameter(Class<?> parameterType) throws Exception {
-        Class<OptionMapping> optionMappingClass = OptionMapping.class;
+    public static OptionBinder mapParameter(Class<?> parameterType) {
         return switch (parameterType.getName()) {
             case "byte", "short", "float" -> throw new IllegalArgumentException("byte, short and floats are not supported by JDA");
-            case "long", "java.lang.Long" -> optionMappingClass.getMethod("getAsLong");
-            case "int", "java.lang.Integer" -> optionMappingClass.getMethod("getAsInt");
-            case "double", "java.lang.Double" -> optionMappingClass.getMethod("getAsDouble");
-            case "boolean", "java.lang.Boolean" -> optionMappingClass.getMethod("getAsBoolean");
-            case ATTACHMENT_CLASS_NAME -> optionMappingClass.getMethod("getAsAttachment");
-            case MENTIONABLE_CLASS_NAME -> optionMappingClass.getMethod("getAsMentionable");
-            case MEMBER_CLASS_NAME -> optionMappingClass.getMethod("getAsMember");
-            case USER_CLASS_NAME -> optionMappingClass.getMethod("getAsUser");
-            case ROLE_CLASS_NAME -> optionMappingClass.getMethod("getAsRole");
-            case CHANNEL_CLASS_NAME -> optionMappingClass.getMethod("getAsChannel");
-            default -> optionMappingClass.getMethod("getAsString");
+            case "long" -> (mapping, arguments, slot) -> arguments.setLong(slot, mapping.getAsLong());
+            case "int" -> (mapping, arguments, slot) -> arguments.setInt(slot, mapping.getAsInt());
+            case "double" -> (mapping, arguments, slot) -> arguments.setDouble(slot, mapping.getAsDouble());
+            case "boolean" -> (mapping, arguments, slot) -> arguments.setBoolean(slot, mapping.getAsBoolean());
+            case "java.lang.Long" -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsLong());
+            case "java.lang.Integer" -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsInt());
+            case "java.lang.Double" -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsDouble());
+            case "java.lang.Boolean" -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsBoolean());
+            case ATTACHMENT_CLASS_NAME -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsAttachment());
+            case MENTIONABLE_CLASS_NAME -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsMentionable());
+            case MEMBER_CLASS_NAME -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsMember());
+            case USER_CLASS_NAME -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsUser());
+            case ROLE_CLASS_NAME -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsRole());
+            case CHANNEL_CLASS_NAME -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsChannel());
+            default -> (mapping, arguments, slot) -> arguments.set(slot, mapping.getAsString());
         };
     }
 
@@ -57,12 +58,11 @@ public class ParameterMapper {
     public static Object mapTypeToNull(Class<?> parameterType) {
 
         return switch (parameterType.getName()) {
-            case "long",
-                    "short",
+            case "long", "java.lang.Long" -> 0L;
+            case "short",
                     "byte",
                     "int",
                     "java.lang.Integer",
-                    "java.lang.Long",
                     "java.lang.Short",
                     "java.lang.Byte",
                     "java.lang.Number" -> 0;
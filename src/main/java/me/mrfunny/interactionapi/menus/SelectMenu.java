@@ -15,7 +15,8 @@ public abstract class SelectMenu<T> implements
     protected String id, placeholder;
     protected int minValues, maxValues;
     protected boolean disabled;
-    protected User createdFor;
+    protected long createdForId;
+    protected ResponseCache responseCache;
 
     public SelectMenu(String id, String placeholder, int minValues, int maxValues, boolean disabled) {
         this.id = id;
@@ -26,7 +27,10 @@ public abstract class SelectMenu<T> implements
     }
 
     public SelectMenu(User createdFor) {
-        this.createdFor = createdFor;
+        if(createdFor != null) {
+            this.createdForId = createdFor.getIdLong();
+            this.responseCache = ResponseCache.of(createdFor);
+        }
     }
 
     public SelectMenu() {
@@ -34,12 +38,19 @@ public abstract class SelectMenu<T> implements
     }
 
     @Override
-    public User getCreatedFor() {
-        return createdFor;
+    public long getCreatedForId() {
+        return createdForId;
+    }
+
+    @Override
+    public ResponseCache getResponseCache() {
+        return responseCache;
     }
 
     public SelectMenu<T> setId(String id) {
+        String oldId = this.id;
         this.id = id;
+        reindex(oldId);
         return this;
     }
 
@@ -28,7 +28,7 @@ public abstract class StringSelectMenu extends SelectMenu<SelectOption> {
     }
 
     public StringSelectMenu(User createdFor) {
-        this.createdFor = createdFor;
+        super(createdFor);
         this.options = options();
     }
 
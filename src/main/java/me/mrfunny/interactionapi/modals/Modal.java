@@ -1,8 +1,11 @@
 package me.mrfunny.interactionapi.modals;
 
 import me.mrfunny.interactionapi.common.SimpleExecutable;
+import me.mrfunny.interactionapi.internal.cache.PermanentResponses;
 import me.mrfunny.interactionapi.internal.cache.ResponseCache;
 import me.mrfunny.interactionapi.internal.wrapper.JdaModalWrapper;
+import me.mrfunny.interactionapi.internal.wrapper.ModalFieldBinding;
+import me.mrfunny.interactionapi.internal.wrapper.ModalSchema;
 import me.mrfunny.interactionapi.response.interfaces.CachedResponse;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.interactions.components.ActionRow;
@@ -14,30 +17,34 @@ import org.jetbrains.annotations.NotNull;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class Modal implements CachedResponse, SimpleExecutable, net.dv8tion.jda.api.interactions.modals.Modal {
     private String id;
     private String title;
     private final List<ActionRow> components = new ArrayList<>();
-    private final HashMap<String, Field> fields = new HashMap<>();
-    private final User createdFor;
+    private final long createdForId;
+    private final ResponseCache responseCache;
     private final int deleteAfter;
     private net.dv8tion.jda.api.interactions.modals.Modal mappedModal = null;
 
     public Modal(User createdFor, int deleteAfter) {
-        this.createdFor = createdFor;
+        this.createdForId = createdFor == null ? 0 : createdFor.getIdLong();
+        this.responseCache = ResponseCache.of(createdFor);
         this.deleteAfter = deleteAfter;
-        ResponseCache.decide(this);
+        // indexed once the id is set, the modals created for the same user would replace each other under the null id
     }
 
     public Modal(String id, String title) {
         this.deleteAfter = -1;
-        this.createdFor = null;
+        this.createdForId = 0;
+        this.responseCache = null;
         this.id = id;
         this.title = title;
-        ResponseCache.addPermanent(this);
+        PermanentResponses.add(this);
         try {
             mappedModal = JdaModalWrapper.buildModalToRun(this);
         } catch (Exception e) {
@@ -53,10 +60,36 @@ public class Modal implements CachedResponse, SimpleExecutable, net.dv8tion.jda.
         return mappedModal == null ? JdaModalWrapper.buildModalToRun(this) : mappedModal;
     }
 
+    /**
+     * @return Fields of the modal class by the ids of their text inputs
+     * @deprecated The fields aren't accessed with the reflection anymore, use {@link #getFieldValues()} to read the fields of this modal
+     */
+    @Deprecated
     public HashMap<String, Field> getFields() {
+        HashMap<String, Field> fields = new HashMap<>();
+        for(ModalFieldBinding binding : ModalSchema.of(getClass()).getFields()) {
+            try {
+                Field field = getClass().getDeclaredField(binding.fieldName());
+                field.setAccessible(true);
+                fields.put(binding.id(), field);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException(e);
+            }
+        }
         return fields;
     }
 
+    /**
+     * @return Fields of this modal by the ids of their text inputs, in the order they are declared
+     */
+    public Map<String, ModalField> getFieldValues() {
+        LinkedHashMap<String, ModalField> values = new LinkedHashMap<>();
+        for(ModalFieldBinding binding : ModalSchema.of(getClass()).getFields()) {
+            values.put(binding.id(), binding.getter().apply(this));
+        }
+        return values;
+    }
+
     public void onInit(){}
 
     public Modal setTitle(String title) {
@@ -65,7 +98,13 @@ public class Modal implements CachedResponse, SimpleExecutable, net.dv8tion.jda.
     }
 
     public Modal setId(String id) {
+        String oldId = this.id;
         this.id = id;
+        if(oldId == null) {
+            decide();
+        } else {
+            reindex(oldId);
+        }
         return this;
     }
 
@@ -109,8 +148,13 @@ public class Modal implements CachedResponse, SimpleExecutable, net.dv8tion.jda.
     }
 
     @Override
-    public User getCreatedFor() {
-        return this.createdFor;
+    public long getCreatedForId() {
+        return this.createdForId;
+    }
+
+    @Override
+    public ResponseCache getResponseCache() {
+        return this.responseCache;
     }
 
     @Override
@@ -0,0 +1,315 @@
+package me.mrfunny.interactionapi.processor;
+
+import me.mrfunny.interactionapi.annotation.Main;
+import me.mrfunny.interactionapi.annotation.Ordered;
+import me.mrfunny.interactionapi.annotation.Parameter;
+import me.mrfunny.interactionapi.annotation.Subcommand;
+import me.mrfunny.interactionapi.annotation.Sync;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the resolvers of the command classes and the binders of the modals at compile time,
+ * so they are registered without reflection. Classes compiled without the processor are still resolved with reflection.
+ * <p>
+ * Enabled by adding the library to the annotation processor path, for example {@code annotationProcessor} in Gradle
+ */
+@SupportedAnnotationTypes({
+        "me.mrfunny.interactionapi.annotation.Main",
+        "me.mrfunny.interactionapi.annotation.Subcommand",
+        "me.mrfunny.interactionapi.annotation.ModalFieldData"
+})
+public class InteractionProcessor extends AbstractProcessor {
+    // the suffixes are the same as in GeneratedResolvers, which is not loaded here to keep JDA off the processor path
+    private static final String COMMAND_SUFFIX = "$$InteractionResolver";
+    private static final String MODAL_SUFFIX = "$$ModalBinder";
+    private static final String INVOCATION_CLASS = "me.mrfunny.interactionapi.commands.slash.SlashCommandInvocation";
+    private static final String GROUP_CLASS = "me.mrfunny.interactionapi.commands.slash.SubcommandGroup";
+    private static final String MODAL_CLASS = "me.mrfunny.interactionapi.modals.Modal";
+    private static final String MODAL_FIELD_CLASS = "me.mrfunny.interactionapi.modals.ModalField";
+    private static final String MODAL_FIELD_DATA_CLASS = "me.mrfunny.interactionapi.annotation.ModalFieldData";
+    private static final String GENERATED = "me.mrfunny.interactionapi.internal.generated.";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        LinkedHashSet<TypeElement> commands = new LinkedHashSet<>();
+        LinkedHashSet<TypeElement> modals = new LinkedHashSet<>();
+        for(TypeElement annotation : annotations) {
+            boolean modal = annotation.getQualifiedName().contentEquals(MODAL_FIELD_DATA_CLASS);
+            for(Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if(!(element.getEnclosingElement() instanceof TypeElement type)) continue;
+                (modal ? modals : commands).add(type);
+            }
+        }
+        for(TypeElement type : commands) {
+            if(canGenerate(type)) generateCommand(type);
+        }
+        for(TypeElement type : modals) {
+            if(canGenerate(type)) generateModal(type);
+        }
+        return false;
+    }
+
+    /*
+    The generated class is placed in the same package, so it can't reach private, local or anonymous classes
+     */
+    private boolean canGenerate(TypeElement type) {
+        if(type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) return false;
+        Element element = type;
+        while(element instanceof TypeElement nested) {
+            if(nested.getNestingKind() != NestingKind.TOP_LEVEL && nested.getNestingKind() != NestingKind.MEMBER) return false;
+            if(nested.getModifiers().contains(Modifier.PRIVATE)) {
+                note(type, type.getQualifiedName() + " is resolved with reflection, because it is private");
+                return false;
+            }
+            element = nested.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private void generateCommand(TypeElement type) {
+        String typeName = typeName(type.asType());
+        boolean group = processingEnv.getTypeUtils().isAssignable(type.asType(), erasure(GROUP_CLASS));
+        ArrayList<String> executables = new ArrayList<>();
+        boolean valid = true;
+        boolean gotMain = false;
+        boolean gotSubcommands = false;
+        for(ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            Main main = method.getAnnotation(Main.class);
+            Subcommand subcommand = method.getAnnotation(Subcommand.class);
+            if(main == null && subcommand == null) continue;
+            // the same methods are found by getMethods() without the processor
+            if(!method.getModifiers().contains(Modifier.PUBLIC)) continue;
+            if(method.getModifiers().contains(Modifier.STATIC)) {
+                valid = error(method, "Command method should not be static");
+                continue;
+            }
+            if(main != null) {
+                if(group) valid = error(method, "Cannot have Main method for group");
+                if(gotMain) valid = error(method, "Class " + type.getQualifiedName() + " has 2 or more main executable methods");
+                if(gotSubcommands) valid = error(method, "Command can't have main executor and subcommands");
+                gotMain = true;
+            } else {
+                if(gotMain) valid = error(method, "Command can't have main executor and subcommands");
+                gotSubcommands = true;
+            }
+            String executable = executable(typeName, method, main != null, subcommand);
+            if(executable == null) {
+                valid = false;
+                continue;
+            }
+            executables.add(executable);
+        }
+        if(!valid) return;
+        write(type, COMMAND_SUFFIX, GENERATED + "GeneratedCommand",
+                "    @Override\n" +
+                "    public java.util.List<" + GENERATED + "GeneratedExecutable> executables() {\n" +
+                "        return java.util.List.of(" + String.join(",", executables) + "\n        );\n" +
+                "    }\n");
+    }
+
+    private String executable(String typeName, ExecutableElement method, boolean main, Subcommand subcommand) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        ArrayList<String> options = new ArrayList<>();
+        ArrayList<String> arguments = new ArrayList<>();
+        int contextArgumentIndex = -1;
+        for(int i = 0; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            String parameterType = typeName(parameter.asType());
+            if(parameterType.equals(INVOCATION_CLASS)) {
+                if(contextArgumentIndex != -1) {
+                    error(parameter, "Method can't have 2 context arguments");
+                    return null;
+                }
+                contextArgumentIndex = i;
+                arguments.add("(" + parameterType + ") arguments.get(" + i + ")");
+                continue;
+            }
+            String argument = switch(parameter.asType().getKind()) {
+                case LONG -> "arguments.getLong(" + i + ")";
+                case INT -> "arguments.getInt(" + i + ")";
+                case DOUBLE -> "arguments.getDouble(" + i + ")";
+                case BOOLEAN -> "arguments.getBoolean(" + i + ")";
+                case BYTE, SHORT, FLOAT, CHAR -> null;
+                default -> "(" + parameterType + ") arguments.get(" + i + ")";
+            };
+            if(argument == null) {
+                error(parameter, "byte, short and floats are not supported by JDA");
+                return null;
+            }
+            arguments.add(argument);
+
+            String name = parameter.getSimpleName().toString();
+            String description = "No description provided.";
+            boolean required = true;
+            String[] stringChoices = {};
+            long[] longChoices = {};
+            Parameter declaration = parameter.getAnnotation(Parameter.class);
+            if(declaration != null) {
+                name = declaration.name();
+                description = declaration.description();
+                required = declaration.required();
+                stringChoices = declaration.stringChoices();
+                longChoices = declaration.longChoices();
+            }
+            if(stringChoices.length > 0 && longChoices.length > 0) {
+                error(parameter, "Parameter declaration has long and string predefined choices");
+                return null;
+            }
+            ArrayList<String> stringLiterals = new ArrayList<>();
+            for(String choice : stringChoices) {
+                stringLiterals.add(literal(choice));
+            }
+            ArrayList<String> longLiterals = new ArrayList<>();
+            for(long choice : longChoices) {
+                longLiterals.add(literal(choice));
+            }
+            options.add("\n                        new " + GENERATED + "GeneratedParameter(" + i + ", " + parameterType + ".class, " + literal(name) + ", " +
+                    literal(description) + ", " + required + ", new String[]{" + String.join(", ", stringLiterals) + "}, new long[]{" +
+                    String.join(", ", longLiterals) + "})");
+        }
+        if(contextArgumentIndex == -1) {
+            error(method, "Argument with type " + INVOCATION_CLASS + " is required to build a command");
+            return null;
+        }
+        String name = subcommand != null && !subcommand.name().equals("") ? subcommand.name() : method.getSimpleName().toString();
+        String description = subcommand != null && !subcommand.description().equals("") ? subcommand.description() : "No description provided.";
+        String invoker = "(instance, arguments) -> ((" + typeName + ") instance)." + method.getSimpleName() + "(" + String.join(", ", arguments) + ")";
+        return "\n                new " + GENERATED + "GeneratedExecutable(" + main + ", " + literal(name) + ", " + literal(description) + ", " +
+                parameters.size() + ", " + contextArgumentIndex + ", java.util.List.of(" + String.join(",", options) + "),\n                        " +
+                mode(method) + ",\n                        " + invoker + ")";
+    }
+
+    /*
+    Mode of the method only, the mode of the class is read at runtime as for the other handlers
+     */
+    private static String mode(ExecutableElement method) {
+        String mode = "me.mrfunny.interactionapi.internal.InteractionPipeline.Mode";
+        if(method.getAnnotation(Sync.class) != null) {
+            return "new " + mode + "(true, null)";
+        }
+        Ordered ordered = method.getAnnotation(Ordered.class);
+        if(ordered != null) {
+            return "new " + mode + "(false, me.mrfunny.interactionapi.annotation.Ordered.Lane." + ordered.value().name() + ")";
+        }
+        return "null";
+    }
+
+    private void generateModal(TypeElement type) {
+        if(!processingEnv.getTypeUtils().isAssignable(type.asType(), erasure(MODAL_CLASS))) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "@ModalFieldData is only used in the subclasses of " + MODAL_CLASS, type);
+            return;
+        }
+        String typeName = typeName(type.asType());
+        ArrayList<String> fields = new ArrayList<>();
+        // the same fields are found by getDeclaredFields() without the processor
+        for(VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if(!typeName(field.asType()).equals(MODAL_FIELD_CLASS)) continue;
+            Map<String, Object> data = annotationValues(field, MODAL_FIELD_DATA_CLASS);
+            if(data == null) continue;
+            if(field.getModifiers().contains(Modifier.PRIVATE) || field.getModifiers().contains(Modifier.FINAL)) {
+                note(field, type.getQualifiedName() + " is resolved with reflection, because the field " + field.getSimpleName() + " is private or final");
+                return;
+            }
+            String id = (String) data.get("id");
+            if(id.equals("")) {
+                id = field.getSimpleName().toString();
+            }
+            String access = "((" + typeName + ") modal)." + field.getSimpleName();
+            fields.add("\n                new me.mrfunny.interactionapi.internal.wrapper.ModalFieldBinding(" + literal(id) + ", " + literal(field.getSimpleName().toString()) + ", " + literal((String) data.get("label")) + ", " +
+                    "net.dv8tion.jda.api.interactions.components.text.TextInputStyle." + ((VariableElement) data.get("style")).getSimpleName() + ", " +
+                    data.get("minLength") + ", " + data.get("maxLength") + ", " + data.get("required") + ", " +
+                    literal((String) data.get("defaultValue")) + ", " + literal((String) data.get("placeholder")) + ",\n                        " +
+                    "modal -> " + access + ",\n                        " +
+                    "(modal, field) -> " + access + " = field)");
+        }
+        write(type, MODAL_SUFFIX, GENERATED + "GeneratedModal",
+                "    @Override\n" +
+                "    public java.util.List<me.mrfunny.interactionapi.internal.wrapper.ModalFieldBinding> fields() {\n" +
+                "        return java.util.List.of(" + String.join(",", fields) + "\n        );\n" +
+                "    }\n");
+    }
+
+    /*
+    Values of the annotation with the defaults, read from the source because the enums of JDA may be not on the processor path
+     */
+    private Map<String, Object> annotationValues(Element element, String annotation) {
+        for(AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if(!typeName(mirror.getAnnotationType()).equals(annotation)) continue;
+            HashMap<String, Object> values = new HashMap<>();
+            for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+                values.put(entry.getKey().getSimpleName().toString(), entry.getValue().getValue());
+            }
+            return values;
+        }
+        return null;
+    }
+
+    private void write(TypeElement type, String suffix, String implemented, String body) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + suffix;
+        try {
+            try(Writer writer = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? simpleName : packageName + "." + simpleName, type).openWriter()) {
+                if(!packageName.isEmpty()) {
+                    writer.write("package " + packageName + ";\n\n");
+                }
+                writer.write("@javax.annotation.processing.Generated(\"" + InteractionProcessor.class.getName() + "\")\n" +
+                        "public final class " + simpleName + " implements " + implemented + " {\n" + body + "}\n");
+            }
+        } catch (IOException e) {
+            error(type, "Failed to generate " + simpleName + ": " + e.getMessage());
+        }
+    }
+
+    private TypeMirror erasure(String className) {
+        return processingEnv.getTypeUtils().erasure(processingEnv.getElementUtils().getTypeElement(className).asType());
+    }
+
+    private String typeName(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private String literal(Object value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+}
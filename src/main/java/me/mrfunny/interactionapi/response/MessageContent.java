@@ -1,7 +1,6 @@
 package me.mrfunny.interactionapi.response;
 
 import me.mrfunny.interactionapi.common.channel.Channels;
-import me.mrfunny.interactionapi.internal.cache.ResponseCache;
 import me.mrfunny.interactionapi.response.interfaces.CachedResponse;
 import me.mrfunny.interactionapi.response.interfaces.InteractionResponse;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -83,7 +82,7 @@ public class MessageContent implements InteractionResponse, Cloneable {
     public MessageContent addActionRow(ItemComponent... components) {
         for(ItemComponent component : components) {
             if(component instanceof CachedResponse cached) {
-                ResponseCache.decide(cached);
+                cached.decide();
             }
         }
         this.components.add(ActionRow.of(components));
@@ -1,5 +1,6 @@
 package me.mrfunny.interactionapi.response.interfaces;
 
+import me.mrfunny.interactionapi.internal.cache.PermanentResponses;
 import me.mrfunny.interactionapi.internal.cache.ResponseCache;
 import net.dv8tion.jda.api.entities.User;
 
@@ -15,14 +16,68 @@ public interface CachedResponse extends InteractionResponse {
         return false;
     }
 
-    User getCreatedFor();
+    /**
+     * Only the id of the user is kept, so cached responses don't hold the JDA entities in memory.
+     * Implementations which still implement {@link #getCreatedFor()} only don't have to override it
+     * @return Id of the user this response is created for, 0 if it's not created for a specific user
+     */
+    default long getCreatedForId() {
+        User createdFor = getCreatedFor();
+        return createdFor == null ? 0 : createdFor.getIdLong();
+    }
+
+    /**
+     * @return User this response is created for, null if it's not created for a specific user or the user is not in the cache of JDA
+     * @deprecated The entity is looked up by {@link #getCreatedForId()}, use the id instead
+     */
+    @Deprecated
+    default User getCreatedFor() {
+        long id = getCreatedForId();
+        ResponseCache cache = getResponseCache();
+        if(id == 0 || cache == null || cache.getJda() == null) return null;
+        return cache.getJda().getUserById(id);
+    }
+
     String getId();
 
+    /**
+     * @return Cache of the manager which handles the user this response is created for, null if the response is not created for a user
+     */
+    default ResponseCache getResponseCache() {
+        return null;
+    }
+
+    /**
+     * Caches the response if it's created for a user, otherwise registers it as a permanent one.
+     * Stateless responses are not cached, their state is written into the id instead
+     * @return True if the response was cached
+     */
+    default boolean decide() {
+        return ResponseCache.decide(this);
+    }
+
     default void cache() {
-        ResponseCache.addCached(this);
+        ResponseCache cache = getResponseCache();
+        if(cache == null) {
+            throw new RuntimeException("Cannot cache a response which is not created for a user!");
+        }
+        cache.addCached(this);
     }
 
     default boolean close() {
-        return ResponseCache.removeCached(this);
+        ResponseCache cache = getResponseCache();
+        return cache != null && cache.removeCached(this);
+    }
+
+    /**
+     * Moves the response in the cache after its id was changed
+     */
+    default void reindex(String oldId) {
+        ResponseCache cache = getResponseCache();
+        if(cache == null) {
+            PermanentResponses.updateId(this, oldId);
+            return;
+        }
+        cache.updateId(this, oldId);
     }
 }
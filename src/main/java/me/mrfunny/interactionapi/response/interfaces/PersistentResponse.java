@@ -0,0 +1,23 @@
+package me.mrfunny.interactionapi.response.interfaces;
+
+import net.dv8tion.jda.api.entities.User;
+
+/**
+ * Cached response which survives the restart of the bot when the {@link me.mrfunny.interactionapi.internal.cache.ResponseCache} has a store.
+ * After the restart the response is created again on the first interaction with it, using the constructor which accepts the {@link User} it was created for
+ */
+public interface PersistentResponse extends CachedResponse {
+    /**
+     * Called when the response is cached
+     * @return State of the response which is needed to handle the interaction after the restart
+     */
+    default byte[] saveState() {
+        return new byte[0];
+    }
+
+    /**
+     * Called after the response was created again from the store
+     * @param state State which was returned by {@link #saveState()}
+     */
+    default void restoreState(byte[] state) {}
+}
@@ -0,0 +1,13 @@
+package me.mrfunny.interactionapi.response.interfaces;
+
+import net.dv8tion.jda.api.entities.User;
+
+/**
+ * Button or select menu which isn't kept in the cache, its handler, owner, expiry and state are written into the custom id instead.
+ * The type should be registered with {@link me.mrfunny.interactionapi.internal.cache.StatelessResponses#register}.
+ * On every interaction a new instance is created for the {@link User} and {@link #restoreState(byte[])} is called, so changes made to the state
+ * in the handler are not kept. The state should be small: the whole id can't be longer than 100 characters.
+ * {@link #deleteAfter()} below 1 means the component never expires
+ */
+public interface StatelessResponse extends PersistentResponse {
+}
@@ -0,0 +1,50 @@
+package me.mrfunny.interactionapi.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+Runs the tasks one after another in the order they were submitted, using the threads of the delegate executor.
+Submitting never blocks
+ */
+public class SerialExecutor implements Executor {
+    private final Executor delegate;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SerialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        tasks.add(command);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if(running.compareAndSet(false, true)) {
+            delegate.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            while((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        // a task could be added after the queue was seen empty, but before the flag was reset
+        if(!tasks.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
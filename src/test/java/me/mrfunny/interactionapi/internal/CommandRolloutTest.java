@@ -0,0 +1,105 @@
+package me.mrfunny.interactionapi.internal;
+
+import net.dv8tion.jda.api.entities.Guild;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandRolloutTest {
+    private static Guild guild(long id) {
+        return (Guild) Proxy.newProxyInstance(Guild.class.getClassLoader(), new Class<?>[] {Guild.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "getId" -> Long.toString(id);
+            case "getIdLong" -> id;
+            case "hashCode" -> Long.hashCode(id);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "Guild " + id;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static List<Guild> guilds(int amount) {
+        ArrayList<Guild> guilds = new ArrayList<>();
+        for(int i = 1; i <= amount; i++) {
+            guilds.add(guild(i));
+        }
+        return guilds;
+    }
+
+    @Test
+    public void emptyRolloutIsFinishedRightAway() {
+        RolloutProgress progress = CommandRollout.run(List.of(), 4, guild -> CompletableFuture.completedFuture(true), null).join();
+        assertEquals(new RolloutProgress(0, 0, 0, 0), progress);
+        assertTrue(progress.isFinished());
+    }
+
+    @Test
+    public void progressCountsUpdatedAndUnchangedGuilds() throws Exception {
+        CopyOnWriteArrayList<RolloutProgress> reported = new CopyOnWriteArrayList<>();
+        RolloutProgress progress = CommandRollout.run(guilds(10), 3,
+                guild -> CompletableFuture.completedFuture(guild.getIdLong() % 2 == 0), reported::add).get(5, TimeUnit.SECONDS);
+        assertEquals(new RolloutProgress(10, 10, 5, 0), progress);
+        assertEquals(10, reported.size());
+        for(int i = 0; i < reported.size(); i++) {
+            assertEquals(i + 1, reported.get(i).done());
+        }
+        assertTrue(reported.get(9).isFinished());
+    }
+
+    @Test
+    public void noMoreThanParallelismGuildsAreInProgress() throws Exception {
+        AtomicInteger inProgress = new AtomicInteger();
+        AtomicInteger maxInProgress = new AtomicInteger();
+        RolloutProgress progress = CommandRollout.run(guilds(20), 4, guild -> {
+            maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inProgress.decrementAndGet();
+                return true;
+            });
+        }, null).get(10, TimeUnit.SECONDS);
+        assertEquals(new RolloutProgress(20, 20, 20, 0), progress);
+        assertTrue(maxInProgress.get() <= 4, "guilds in progress at once: " + maxInProgress.get());
+        assertTrue(maxInProgress.get() > 1);
+    }
+
+    @Test
+    public void failedGuildIsRetried() throws Exception {
+        ConcurrentHashMap<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        RolloutProgress progress = CommandRollout.run(guilds(2), 2, guild -> {
+            int attempt = attempts.computeIfAbsent(guild.getId(), id -> new AtomicInteger()).incrementAndGet();
+            if(guild.getIdLong() == 1 && attempt == 1) {
+                return CompletableFuture.failedFuture(new RuntimeException("Connection reset"));
+            }
+            return CompletableFuture.completedFuture(true);
+        }, null).get(10, TimeUnit.SECONDS);
+        assertEquals(new RolloutProgress(2, 2, 2, 0), progress);
+        assertEquals(2, attempts.get("1").get());
+        assertEquals(1, attempts.get("2").get());
+    }
+
+    @Test
+    public void guildIsCountedAsFailedAfterAllAttempts() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        RolloutProgress progress = CommandRollout.run(guilds(3), 3, guild -> {
+            if(guild.getIdLong() != 2) return CompletableFuture.completedFuture(false);
+            attempts.incrementAndGet();
+            // thrown instead of returned, the rollout has to handle both
+            throw new IllegalStateException("Discord is unavailable");
+        }, null).get(15, TimeUnit.SECONDS);
+        assertEquals(new RolloutProgress(3, 3, 0, 1), progress);
+        assertEquals(CommandRollout.MAX_ATTEMPTS, attempts.get());
+    }
+}
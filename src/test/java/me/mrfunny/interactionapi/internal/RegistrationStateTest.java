@@ -0,0 +1,92 @@
+package me.mrfunny.interactionapi.internal;
+
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegistrationStateTest {
+    private static List<CommandData> commands() {
+        return List.of(
+                Commands.slash("ticket", "Manage tickets")
+                        .addOption(OptionType.STRING, "reason", "Why the ticket is opened", true)
+                        .addOption(OptionType.INTEGER, "priority", "How urgent it is"),
+                Commands.user("Open ticket for")
+        );
+    }
+
+    @Test
+    public void sameCommandsHaveTheSameHash() {
+        String hash = RegistrationState.hash(commands());
+        assertEquals(hash, RegistrationState.hash(commands()));
+        // known value, so a change of the canonical form is noticed: it would make every bot upload its commands again
+        assertEquals("945a75befc501ef09af809e61620081d56731335a844d8939279c71bb6a340ae", hash);
+    }
+
+    @Test
+    public void hashDoesNotDependOnTheOrderOfTheFields() {
+        CommandData built = Commands.slash("ticket", "Manage tickets").setGuildOnly(true).setNSFW(false);
+        CommandData builtInOtherOrder = Commands.slash("ticket", "Manage tickets").setNSFW(false).setGuildOnly(true);
+        assertEquals(RegistrationState.hash(List.of(built)), RegistrationState.hash(List.of(builtInOtherOrder)));
+    }
+
+    @Test
+    public void changedCommandsChangeTheHash() {
+        String hash = RegistrationState.hash(commands());
+        List<CommandData> changedDescription = List.of(
+                Commands.slash("ticket", "Manage the tickets")
+                        .addOption(OptionType.STRING, "reason", "Why the ticket is opened", true)
+                        .addOption(OptionType.INTEGER, "priority", "How urgent it is"),
+                Commands.user("Open ticket for")
+        );
+        List<CommandData> optionalReason = List.of(
+                Commands.slash("ticket", "Manage tickets")
+                        .addOption(OptionType.STRING, "reason", "Why the ticket is opened", false)
+                        .addOption(OptionType.INTEGER, "priority", "How urgent it is"),
+                Commands.user("Open ticket for")
+        );
+        assertNotEquals(hash, RegistrationState.hash(changedDescription));
+        assertNotEquals(hash, RegistrationState.hash(optionalReason));
+        assertNotEquals(hash, RegistrationState.hash(commands().subList(0, 1)));
+        assertNotEquals(RegistrationState.hash(List.of()), hash);
+    }
+
+    @Test
+    public void uploadedHashesSurviveTheRestart(@TempDir Path directory) {
+        Path file = directory.resolve("commands.properties");
+        String hash = RegistrationState.hash(commands());
+        RegistrationState state = new RegistrationState(file);
+        assertFalse(state.isUploaded("1.global", hash));
+        state.setUploaded("1.global", hash);
+        state.setUploaded("1.guild.2", hash);
+        state.save();
+        assertTrue(Files.exists(file));
+
+        RegistrationState restarted = new RegistrationState(file);
+        assertTrue(restarted.isUploaded("1.global", hash));
+        assertTrue(restarted.isUploaded("1.guild.2", hash));
+        assertFalse(restarted.isUploaded("1.guild.3", hash));
+        assertFalse(restarted.isUploaded("1.global", RegistrationState.hash(List.of())));
+    }
+
+    @Test
+    public void forgottenScopeIsUploadedAgain(@TempDir Path directory) {
+        Path file = directory.resolve("commands.properties");
+        String hash = RegistrationState.hash(commands());
+        RegistrationState state = new RegistrationState(file);
+        state.setUploaded("1.guild.2", hash);
+        state.save();
+        assertTrue(new RegistrationState(file).isKnown("1.guild.2"));
+        state.forget("1.guild.2");
+        state.save();
+        assertFalse(new RegistrationState(file).isUploaded("1.guild.2", hash));
+        assertFalse(new RegistrationState(file).isKnown("1.guild.2"));
+    }
+}
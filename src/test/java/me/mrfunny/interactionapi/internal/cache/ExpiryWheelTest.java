@@ -0,0 +1,120 @@
+package me.mrfunny.interactionapi.internal.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpiryWheelTest {
+    private ScheduledExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void valuesExpireInOrderOfTheirDeadlines() throws InterruptedException {
+        CopyOnWriteArrayList<String> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(executor, 10, value -> {
+            expired.add(value);
+            latch.countDown();
+        });
+        wheel.schedule("late", 200, TimeUnit.MILLISECONDS);
+        wheel.schedule("early", 20, TimeUnit.MILLISECONDS);
+        assertEquals(2, wheel.size());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("early", "late"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void valueDoesNotExpireBeforeItsDeadline() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long[] expiredAt = new long[1];
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(executor, 10, value -> {
+            expiredAt[0] = System.currentTimeMillis();
+            latch.countDown();
+        });
+        long scheduledAt = System.currentTimeMillis();
+        wheel.schedule("value", 100, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(expiredAt[0] - scheduledAt >= 100 - 10, "expired after " + (expiredAt[0] - scheduledAt) + " ms");
+    }
+
+    @Test
+    public void cancelledValuesNeverExpireAndAreNotCounted() throws InterruptedException {
+        CopyOnWriteArrayList<String> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(executor, 10, value -> {
+            expired.add(value);
+            latch.countDown();
+        });
+        ExpiryWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 20, TimeUnit.MILLISECONDS);
+        wheel.schedule("kept", 60, TimeUnit.MILLISECONDS);
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertFalse(cancelled.isPending());
+        assertEquals(1, wheel.size());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("kept"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void expiredValueCannotBeCancelled() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(executor, 10, value -> latch.countDown());
+        ExpiryWheel.Timeout<String> timeout = wheel.schedule("value", 0, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertFalse(timeout.cancel());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void deadlinesLongerThanOneRotationWaitForTheirTurn() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(executor, 1, value -> latch.countDown());
+        // 512 buckets of 1 ms, so the value passes its bucket once before the deadline
+        long scheduledAt = System.currentTimeMillis();
+        wheel.schedule("value", 700, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - scheduledAt >= 690);
+    }
+
+    @Test
+    public void stoppedWheelDoesNotExpireValues() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(executor, 10, value -> latch.countDown());
+        wheel.schedule("value", 20, TimeUnit.MILLISECONDS);
+        wheel.stop();
+        assertFalse(latch.await(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void changedResolutionKeepsScheduledValues() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(executor, 1000, value -> latch.countDown());
+        wheel.schedule("first", 50, TimeUnit.MILLISECONDS);
+        wheel.schedule("second", 100, TimeUnit.MILLISECONDS);
+        wheel.setTickResolution(10, TimeUnit.MILLISECONDS);
+        assertEquals(10, wheel.getTickResolution());
+        // the first tick with the old resolution moves both values to the new buckets
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,176 @@
+package me.mrfunny.interactionapi.internal.cache;
+
+import me.mrfunny.interactionapi.response.interfaces.CachedResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+    private ScheduledExecutorService executor;
+    private ResponseCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        cache = new ResponseCache(executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cache.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void decideCachesResponsesCreatedForUser() {
+        TestResponse response = new TestResponse("button", 1, cache);
+        assertTrue(ResponseCache.decide(response));
+        assertEquals(List.of(response), List.copyOf(cache.getResponses()));
+        assertEquals(1, cache.getStats().size());
+    }
+
+    @Test
+    public void sameIdForDifferentUsersIsCachedSeparately() {
+        TestResponse first = new TestResponse("button", 1, cache);
+        TestResponse second = new TestResponse("button", 2, cache);
+        cache.addCached(first);
+        cache.addCached(second);
+        assertEquals(2, cache.getStats().size());
+        assertTrue(cache.removeCached(first));
+        assertEquals(List.of(second), List.copyOf(cache.getResponses()));
+    }
+
+    @Test
+    public void replacedResponseIsNotRemovedByItsOldReference() {
+        TestResponse first = new TestResponse("button", 1, cache);
+        TestResponse second = new TestResponse("button", 1, cache);
+        cache.addCached(first);
+        cache.addCached(second);
+        assertFalse(cache.removeCached(first));
+        assertEquals(List.of(second), List.copyOf(cache.getResponses()));
+        assertEquals(1, cache.getExpiry().size());
+    }
+
+    @Test
+    public void updateIdMovesResponse() {
+        TestResponse response = new TestResponse("old", 1, cache);
+        cache.addCached(response);
+        response.id = "new";
+        cache.updateId(response, "old");
+        assertTrue(cache.removeCached(response));
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    public void concurrentAddsAndRemovesKeepEveryResponseOnce() throws Exception {
+        int threads = 8;
+        int perThread = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger removed = new AtomicInteger();
+        ArrayList<Future<?>> futures = new ArrayList<>();
+        try {
+            for(int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for(int i = 0; i < perThread; i++) {
+                        TestResponse response = new TestResponse("component-" + i, thread + 1, cache);
+                        cache.addCached(response);
+                        // every other response is closed right away, by the same thread which created it
+                        if(i % 2 == 0 && cache.removeCached(response)) {
+                            removed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for(Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(threads * perThread / 2, removed.get());
+        assertEquals(threads * perThread / 2, cache.getStats().size());
+        assertEquals(threads * perThread / 2, cache.getExpiry().size());
+    }
+
+    @Test
+    public void boundedCacheEvictsDownToMaxSize() {
+        cache.setMaxSize(10);
+        for(int i = 0; i < 50; i++) {
+            cache.addCached(new TestResponse("component-" + i, 1, cache));
+        }
+        assertEquals(10, cache.getStats().size());
+        assertEquals(40, cache.getStats().evictions());
+    }
+
+    @Test
+    public void enablingTheBoundEvictsExistingResponses() {
+        for(int i = 0; i < 50; i++) {
+            cache.addCached(new TestResponse("component-" + i, 1, cache));
+        }
+        cache.setMaxSize(10);
+        assertEquals(10, cache.getStats().size());
+        assertEquals(40, cache.getStats().evictions());
+
+        cache.setMaxSize(-1);
+        for(int i = 50; i < 60; i++) {
+            cache.addCached(new TestResponse("component-" + i, 1, cache));
+        }
+        assertEquals(20, cache.getStats().size());
+        cache.setMaxSize(5);
+        assertEquals(5, cache.getStats().size());
+    }
+
+    @Test
+    public void permanentResponseCannotBeCached() {
+        TestResponse response = new TestResponse("permanent", 1, cache) {
+            @Override
+            public boolean isPermanent() {
+                return true;
+            }
+        };
+        assertThrows(RuntimeException.class, () -> cache.addCached(response));
+    }
+
+    static class TestResponse implements CachedResponse {
+        private String id;
+        private final long createdForId;
+        private final ResponseCache cache;
+
+        TestResponse(String id, long createdForId, ResponseCache cache) {
+            this.id = id;
+            this.createdForId = createdForId;
+            this.cache = cache;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public long getCreatedForId() {
+            return createdForId;
+        }
+
+        @Override
+        public ResponseCache getResponseCache() {
+            return cache;
+        }
+    }
+}
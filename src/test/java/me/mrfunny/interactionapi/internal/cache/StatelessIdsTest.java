@@ -0,0 +1,75 @@
+package me.mrfunny.interactionapi.internal.cache;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatelessIdsTest {
+    private static final SecretKeySpec SECRET = new SecretKeySpec("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    private static final SecretKeySpec OTHER_SECRET = new SecretKeySpec("fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    private static final long OWNER = 1066719498290880522L;
+
+    @Test
+    public void roundTripForEveryPartialBlockLength() {
+        for(int length = 0; length <= 40; length++) {
+            byte[] state = new byte[length];
+            for(int i = 0; i < length; i++) {
+                state[i] = (byte) (i * 37 - 128);
+            }
+            String id = StatelessIds.encode(SECRET, "vote", OWNER, 0, state);
+            assertEquals(StatelessIds.PREFIX, id.charAt(0));
+            assertTrue(id.length() <= StatelessIds.MAX_ID_LENGTH);
+            StatelessIds.Decoded decoded = StatelessIds.decode(SECRET, id);
+            assertNotNull(decoded, "state of " + length + " bytes");
+            assertEquals("vote", decoded.key());
+            assertEquals(OWNER, decoded.ownerId());
+            assertEquals(0, decoded.expiresAt());
+            assertArrayEquals(state, decoded.state());
+        }
+    }
+
+    @Test
+    public void expiryIsRoundedUpToSeconds() {
+        String id = StatelessIds.encode(SECRET, "vote", 0, 1_700_000_000_001L, new byte[0]);
+        StatelessIds.Decoded decoded = StatelessIds.decode(SECRET, id);
+        assertNotNull(decoded);
+        assertEquals(0, decoded.ownerId());
+        assertEquals(1_700_000_001_000L, decoded.expiresAt());
+    }
+
+    @Test
+    public void everyChangedCharacterIsRejected() {
+        String id = StatelessIds.encode(SECRET, "vote", OWNER, 0, new byte[] {1, 2, 3, 4, 5});
+        for(int i = 1; i < id.length(); i++) {
+            char original = id.charAt(i);
+            char replacement = original == '0' ? '1' : '0';
+            String tampered = id.substring(0, i) + replacement + id.substring(i + 1);
+            assertNull(StatelessIds.decode(SECRET, tampered), "changed character " + i);
+        }
+    }
+
+    @Test
+    public void idSignedWithAnotherSecretIsRejected() {
+        String id = StatelessIds.encode(OTHER_SECRET, "vote", OWNER, 0, new byte[] {1});
+        assertNull(StatelessIds.decode(SECRET, id));
+    }
+
+    @Test
+    public void truncatedAndForeignIdsAreRejected() {
+        String id = StatelessIds.encode(SECRET, "vote", OWNER, 0, new byte[] {1, 2, 3});
+        for(int length = 0; length < id.length(); length++) {
+            assertNull(StatelessIds.decode(SECRET, id.substring(0, length)), "truncated to " + length);
+        }
+        assertNull(StatelessIds.decode(SECRET, null));
+        assertNull(StatelessIds.decode(SECRET, "open-ticket"));
+        assertNull(StatelessIds.decode(SECRET, StatelessIds.PREFIX + "ééééé"));
+    }
+
+    @Test
+    public void tooBigStateIsRefused() {
+        assertThrows(IllegalStateException.class, () -> StatelessIds.encode(SECRET, "vote", OWNER, 0, new byte[100]));
+    }
+}
@@ -0,0 +1,110 @@
+package me.mrfunny.interactionapi.internal.cache.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistributedResponseStoreTest {
+    private static StoredResponse response(String id, long createdForId) {
+        return new StoredResponse("com.example.Button", id, createdForId, System.currentTimeMillis() + 60_000, new byte[] {1, 2, 3});
+    }
+
+    @Test
+    public void codecRoundTrip() {
+        StoredResponse response = response("button", 42);
+        StoredResponse decoded = StoredResponseCodec.decode(StoredResponseCodec.encode(response));
+        assertEquals(response.className(), decoded.className());
+        assertEquals(response.id(), decoded.id());
+        assertEquals(response.createdForId(), decoded.createdForId());
+        assertEquals(response.expiresAt(), decoded.expiresAt());
+        assertArrayEquals(response.state(), decoded.state());
+    }
+
+    @Test
+    public void responseSavedByOneProcessIsLoadedByAnother() {
+        InProcessKeyValueStore remote = new InProcessKeyValueStore();
+        DistributedResponseStore first = new DistributedResponseStore(remote);
+        DistributedResponseStore second = new DistributedResponseStore(remote);
+        first.save(response("button", 42));
+        StoredResponse loaded = second.load("button", 42);
+        assertNotNull(loaded);
+        assertArrayEquals(new byte[] {1, 2, 3}, loaded.state());
+        assertNull(second.load("button", 43));
+    }
+
+    @Test
+    public void removedResponseIsGoneForOtherProcessesWithoutNearCache() {
+        InProcessKeyValueStore remote = new InProcessKeyValueStore();
+        DistributedResponseStore first = new DistributedResponseStore(remote);
+        DistributedResponseStore second = new DistributedResponseStore(remote);
+        second.setNearCacheTime(0, TimeUnit.MILLISECONDS);
+        first.save(response("button", 42));
+        assertNotNull(second.load("button", 42));
+        first.remove("button", 42);
+        assertNull(second.load("button", 42));
+        assertNull(first.load("button", 42));
+        assertEquals(0, remote.size());
+    }
+
+    @Test
+    public void removedResponseIsServedFromNearCacheUntilItExpires() throws InterruptedException {
+        InProcessKeyValueStore remote = new InProcessKeyValueStore();
+        DistributedResponseStore first = new DistributedResponseStore(remote);
+        DistributedResponseStore second = new DistributedResponseStore(remote);
+        assertEquals(DistributedResponseStore.DEFAULT_NEAR_CACHE_MILLIS, second.getNearCacheTime());
+        first.save(response("button", 42));
+        assertNotNull(second.load("button", 42));
+        first.remove("button", 42);
+        // the process which removed it doesn't see it anymore, the other one does until its near-cache entry expires
+        assertNull(first.load("button", 42));
+        assertNotNull(second.load("button", 42));
+        assertEquals(0, remote.size());
+
+        DistributedResponseStore third = new DistributedResponseStore(remote);
+        third.setNearCacheTime(50, TimeUnit.MILLISECONDS);
+        first.save(response("menu", 42));
+        assertNotNull(third.load("menu", 42));
+        first.remove("menu", 42);
+        Thread.sleep(100);
+        assertNull(third.load("menu", 42));
+    }
+
+    @Test
+    public void expiredResponseIsNotLoaded() {
+        InProcessKeyValueStore remote = new InProcessKeyValueStore();
+        DistributedResponseStore store = new DistributedResponseStore(remote);
+        store.save(new StoredResponse("com.example.Button", "button", 42, System.currentTimeMillis() - 1, new byte[0]));
+        assertNull(store.load("button", 42));
+    }
+
+    @Test
+    public void responsesOfOneUserStayInOnePartition() {
+        List<InProcessKeyValueStore> partitions = List.of(new InProcessKeyValueStore(), new InProcessKeyValueStore(), new InProcessKeyValueStore());
+        DistributedResponseStore store = new DistributedResponseStore(List.copyOf(partitions), "test:");
+        for(int i = 0; i < 20; i++) {
+            store.save(response("component-" + i, 42));
+        }
+        int used = 0;
+        for(InProcessKeyValueStore partition : partitions) {
+            if(partition.size() == 0) continue;
+            used++;
+            assertEquals(20, partition.size());
+        }
+        assertEquals(1, used);
+    }
+
+    @Test
+    public void usersAreSpreadOverPartitions() {
+        List<InProcessKeyValueStore> partitions = List.of(new InProcessKeyValueStore(), new InProcessKeyValueStore(), new InProcessKeyValueStore());
+        DistributedResponseStore store = new DistributedResponseStore(List.copyOf(partitions), "test:");
+        for(long user = 1; user <= 300; user++) {
+            store.save(response("button", user * 4194304L));
+        }
+        for(InProcessKeyValueStore partition : partitions) {
+            assertTrue(partition.size() > 50, "partition holds " + partition.size() + " of 300 users");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package me.mrfunny.interactionapi.internal.data.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandArgumentsTest {
+    public static class Handler {
+        private final List<Object> received = new ArrayList<>();
+
+        private void execute(String text, int amount, long id, double ratio, boolean flag, Object context) {
+            received.addAll(List.of(text, amount, id, ratio, flag, context));
+        }
+
+        public String withResult(String text) {
+            received.add(text);
+            return text;
+        }
+
+        public void failing() {
+            throw new IllegalStateException("Handler failed");
+        }
+    }
+
+    @Test
+    public void invokerTakesArgumentsFromTheirSlots() throws Throwable {
+        Handler handler = new Handler();
+        MethodHandle invoker = CommandArguments.createInvoker(Handler.class.getDeclaredMethod("execute",
+                String.class, int.class, long.class, double.class, boolean.class, Object.class), handler);
+        assertEquals(MethodType.methodType(void.class, CommandArguments.class), invoker.type());
+
+        Object context = new Object();
+        CommandArguments arguments = new CommandArguments(6);
+        arguments.set(0, "hello");
+        arguments.setInt(1, -7);
+        arguments.setLong(2, 1066719498290880522L);
+        arguments.setDouble(3, -0.25);
+        arguments.setBoolean(4, true);
+        arguments.set(5, context);
+        invoker.invokeExact(arguments);
+
+        assertEquals(List.of("hello", -7, 1066719498290880522L, -0.25, true, context), handler.received);
+    }
+
+    @Test
+    public void returnValueOfTheMethodIsDropped() throws Throwable {
+        Handler handler = new Handler();
+        MethodHandle invoker = CommandArguments.createInvoker(Handler.class.getMethod("withResult", String.class), handler);
+        CommandArguments arguments = new CommandArguments(1);
+        arguments.set(0, "value");
+        invoker.invokeExact(arguments);
+        assertEquals(List.of("value"), handler.received);
+    }
+
+    @Test
+    public void exceptionOfTheHandlerIsNotWrapped() throws Throwable {
+        MethodHandle invoker = CommandArguments.createInvoker(Handler.class.getMethod("failing"), new Handler());
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> {
+            invoker.invokeExact(new CommandArguments(0));
+        });
+        assertEquals("Handler failed", thrown.getMessage());
+    }
+
+    @Test
+    public void generatedInvokerIsBoundToTheInstance() throws Throwable {
+        Handler handler = new Handler();
+        CommandInvoker generated = (instance, arguments) -> ((Handler) instance).withResult((String) arguments.get(0));
+        MethodHandle invoker = CommandArguments.createInvoker(generated, handler);
+        CommandArguments arguments = new CommandArguments(1);
+        arguments.set(0, "generated");
+        invoker.invokeExact(arguments);
+        assertEquals(List.of("generated"), handler.received);
+    }
+
+    @Test
+    public void templateReferencesAreCopied() {
+        Object[] template = {"default", null};
+        CommandArguments arguments = new CommandArguments(template);
+        arguments.set(0, "changed");
+        arguments.setInt(1, 5);
+        assertEquals("default", template[0]);
+        assertEquals("changed", arguments.get(0));
+        assertEquals(5, arguments.getInt(1));
+        assertEquals(0, new CommandArguments(template).getLong(1));
+    }
+}
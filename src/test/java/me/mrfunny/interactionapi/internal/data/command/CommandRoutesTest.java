@@ -0,0 +1,67 @@
+package me.mrfunny.interactionapi.internal.data.command;
+
+import me.mrfunny.interactionapi.commands.slash.SubcommandGroupData;
+import me.mrfunny.interactionapi.internal.InteractionPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandRoutesTest {
+    private static CommandExecutor executor(RegisteredCommand source, String name, SubcommandGroupData group) {
+        return new CommandExecutor(source, name, group, "", null, null, 0, InteractionPipeline.Mode.OFFLOADED);
+    }
+
+    private static RegisteredCommand ticket() {
+        RegisteredCommand command = new RegisteredCommand(() -> "ticket", "ticket", true);
+        command.setMainExecutor(executor(command, "ticket", null));
+        command.addSubcommand(executor(command, "open", null));
+        command.addSubcommand(executor(command, "close", null));
+        SubcommandGroupData admin = new SubcommandGroupData("admin", null);
+        HashMap<String, CommandExecutor> executors = new HashMap<>();
+        executors.put("purge", executor(command, "purge", admin));
+        command.addGroup(new RegisteredGroup(admin, executors));
+        return command;
+    }
+
+    @Test
+    public void everyPathResolvesToItsExecutor() {
+        RegisteredCommand command = ticket();
+        CommandRoutes routes = new CommandRoutes();
+        routes.add(command);
+        assertEquals(4, routes.size());
+        assertSame(command.getMainExecutor(), routes.get("ticket", null, null));
+        assertSame(command.getSubcommand("open"), routes.get("ticket", null, "open"));
+        assertSame(command.getSubcommand("close"), routes.get("ticket", null, "close"));
+        assertSame(command.getGroups().get("admin").executors().get("purge"), routes.get("ticket", "admin", "purge"));
+        assertNull(routes.get("ticket", null, "admin"));
+        assertNull(routes.get("ticket", null, "purge"));
+        assertNull(routes.get("tickets", null, null));
+    }
+
+    @Test
+    public void registeringTheSameNameReplacesOldRoutes() {
+        CommandRoutes routes = new CommandRoutes();
+        routes.add(ticket());
+        RegisteredCommand replacement = new RegisteredCommand(() -> "ticket", "ticket", true);
+        replacement.addSubcommand(executor(replacement, "open", null));
+        routes.add(replacement);
+        assertEquals(1, routes.size());
+        assertSame(replacement.getSubcommand("open"), routes.get("ticket", null, "open"));
+        assertNull(routes.get("ticket", null, null));
+        assertNull(routes.get("ticket", "admin", "purge"));
+    }
+
+    @Test
+    public void commandsWithCommonPrefixDoNotReplaceEachOther() {
+        CommandRoutes routes = new CommandRoutes();
+        routes.add(ticket());
+        RegisteredCommand tickets = new RegisteredCommand(() -> "tickets", "tickets", true);
+        tickets.setMainExecutor(executor(tickets, "tickets", null));
+        routes.add(tickets);
+        assertEquals(5, routes.size());
+        assertNotNull(routes.get("ticket", null, "open"));
+        assertSame(tickets.getMainExecutor(), routes.get("tickets", null, null));
+    }
+}
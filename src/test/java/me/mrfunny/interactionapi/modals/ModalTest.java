@@ -0,0 +1,86 @@
+package me.mrfunny.interactionapi.modals;
+
+import me.mrfunny.interactionapi.annotation.ModalFieldData;
+import me.mrfunny.interactionapi.internal.wrapper.ModalFieldBinding;
+import me.mrfunny.interactionapi.internal.wrapper.ModalSchema;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModalTest {
+    public static class FeedbackModal extends Modal {
+        public FeedbackModal() {
+            super(null);
+        }
+
+        @ModalFieldData(label = "Topic")
+        private ModalField topic;
+
+        @ModalFieldData(id = "text", label = "Your feedback")
+        private ModalField feedback;
+
+        @ModalFieldData(label = "Rating", required = false)
+        private final ModalField rating = null;
+    }
+
+    private static FeedbackModal filled() {
+        FeedbackModal modal = new FeedbackModal();
+        modal.topic = new ModalFieldImpl().setId("topic");
+        modal.feedback = new ModalFieldImpl().setId("text");
+        return modal;
+    }
+
+    @Test
+    public void schemaIsResolvedOncePerClass() {
+        assertSame(ModalSchema.of(FeedbackModal.class), ModalSchema.of(FeedbackModal.class));
+        assertEquals(List.of("topic", "text", "rating"), ModalSchema.of(FeedbackModal.class).getFields().stream().map(ModalFieldBinding::id).toList());
+    }
+
+    @Test
+    public void bindingsAreKeyedByInputId() {
+        FeedbackModal modal = filled();
+        Map<String, ModalFieldBinding> fields = ModalSchema.of(FeedbackModal.class).getFieldsById();
+        assertEquals(3, fields.size());
+        assertEquals("Your feedback", fields.get("text").label());
+        assertSame(modal.feedback, fields.get("text").getter().apply(modal));
+        assertSame(modal.topic, fields.get("topic").getter().apply(modal));
+    }
+
+    @Test
+    public void privateAndFinalFieldsAreSet() {
+        FeedbackModal modal = new FeedbackModal();
+        Map<String, ModalFieldBinding> fields = ModalSchema.of(FeedbackModal.class).getFieldsById();
+        ModalFieldImpl text = new ModalFieldImpl().setId("text");
+        ModalFieldImpl rating = new ModalFieldImpl().setId("rating");
+        fields.get("text").setter().accept(modal, text);
+        fields.get("rating").setter().accept(modal, rating);
+        assertSame(text, modal.feedback);
+        assertSame(rating, fields.get("rating").getter().apply(modal));
+    }
+
+    @Test
+    public void fieldValuesAreKeyedByInputIdInDeclarationOrder() {
+        FeedbackModal modal = filled();
+        Map<String, ModalField> values = modal.getFieldValues();
+        assertEquals(List.of("topic", "text", "rating"), List.copyOf(values.keySet()));
+        assertSame(modal.topic, values.get("topic"));
+        assertSame(modal.feedback, values.get("text"));
+        assertNull(values.get("rating"));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void deprecatedFieldsStillReturnAccessibleFields() throws Exception {
+        FeedbackModal modal = filled();
+        HashMap<String, Field> fields = modal.getFields();
+        assertEquals(3, fields.size());
+        assertEquals("feedback", fields.get("text").getName());
+        assertSame(modal.feedback, fields.get("text").get(modal));
+        assertSame(modal.topic, fields.get("topic").get(modal));
+    }
+}
@@ -0,0 +1,241 @@
+package me.mrfunny.interactionapi.processor;
+
+import me.mrfunny.interactionapi.annotation.Ordered;
+import me.mrfunny.interactionapi.internal.data.command.CommandArguments;
+import me.mrfunny.interactionapi.internal.generated.GeneratedCommand;
+import me.mrfunny.interactionapi.internal.generated.GeneratedExecutable;
+import me.mrfunny.interactionapi.internal.generated.GeneratedModal;
+import me.mrfunny.interactionapi.internal.wrapper.ModalFieldBinding;
+import me.mrfunny.interactionapi.modals.Modal;
+import me.mrfunny.interactionapi.modals.ModalFieldImpl;
+import net.dv8tion.jda.api.interactions.components.text.TextInputStyle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InteractionProcessorTest {
+    private static final String COMMAND = """
+            package sample;
+
+            import me.mrfunny.interactionapi.annotation.Ordered;
+            import me.mrfunny.interactionapi.annotation.Parameter;
+            import me.mrfunny.interactionapi.annotation.Subcommand;
+            import me.mrfunny.interactionapi.annotation.Sync;
+            import me.mrfunny.interactionapi.commands.slash.SlashCommand;
+            import me.mrfunny.interactionapi.commands.slash.SlashCommandInvocation;
+
+            public class VoteCommand implements SlashCommand {
+                public String last;
+
+                @Override
+                public String name() {
+                    return "vote";
+                }
+
+                @Subcommand(name = "yes", description = "Vote for it")
+                @Sync
+                public void agree(SlashCommandInvocation invocation, @Parameter(name = "weight", description = "Weight of the vote", required = false, longChoices = {1, 2}) long weight) {
+                    last = "yes " + weight;
+                }
+
+                @Subcommand
+                @Ordered(Ordered.Lane.GUILD)
+                public void no(String reason, SlashCommandInvocation invocation, boolean anonymous) {
+                    last = "no " + reason + " " + anonymous;
+                }
+            }
+            """;
+    private static final String MODAL = """
+            package sample;
+
+            import me.mrfunny.interactionapi.annotation.ModalFieldData;
+            import me.mrfunny.interactionapi.modals.Modal;
+            import me.mrfunny.interactionapi.modals.ModalField;
+            import net.dv8tion.jda.api.interactions.components.text.TextInputStyle;
+
+            public class ReportModal extends Modal {
+                public ReportModal() {
+                    super(null);
+                }
+
+                @ModalFieldData(label = "Title", maxLength = 50)
+                ModalField title;
+
+                @ModalFieldData(id = "details", label = "What happened", style = TextInputStyle.PARAGRAPH, required = false, placeholder = "Steps")
+                public ModalField body;
+            }
+            """;
+
+    private record Compilation(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, Path generated, Path classes) {
+        String generatedSource(String path) throws IOException {
+            return Files.readString(generated.resolve(path));
+        }
+
+        List<String> messages(Diagnostic.Kind kind) {
+            return diagnostics.stream().filter(d -> d.getKind() == kind).map(d -> d.getMessage(null)).collect(Collectors.toList());
+        }
+    }
+
+    private static Compilation compile(Path directory, Map<String, String> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Path generated = Files.createDirectories(directory.resolve("generated"));
+        Path classes = Files.createDirectories(directory.resolve("classes"));
+        ArrayList<JavaFileObject> units = new ArrayList<>();
+        sources.forEach((name, source) -> units.add(new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        }));
+        try(StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            files.setLocation(StandardLocation.CLASS_PATH, classPath());
+            files.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(generated.toFile()));
+            files.setLocation(StandardLocation.CLASS_OUTPUT, List.of(classes.toFile()));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, List.of(), null, units);
+            task.setProcessors(List.of(new InteractionProcessor()));
+            boolean success = task.call();
+            return new Compilation(success, diagnostics.getDiagnostics(), generated, classes);
+        }
+    }
+
+    private static List<File> classPath() {
+        ArrayList<File> path = new ArrayList<>();
+        for(String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            path.add(new File(entry));
+        }
+        return path;
+    }
+
+    @Test
+    public void commandResolverDescribesEveryExecutable(@TempDir Path directory) throws Throwable {
+        Compilation compilation = compile(directory, Map.of("sample.VoteCommand", COMMAND));
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+        String source = compilation.generatedSource("sample/VoteCommand$$InteractionResolver.java");
+        assertTrue(source.contains("@javax.annotation.processing.Generated(\"" + InteractionProcessor.class.getName() + "\")"));
+
+        try(URLClassLoader loader = new URLClassLoader(new java.net.URL[] {compilation.classes().toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> commandClass = loader.loadClass("sample.VoteCommand");
+            GeneratedCommand resolver = (GeneratedCommand) loader.loadClass("sample.VoteCommand$$InteractionResolver").getDeclaredConstructor().newInstance();
+            Map<String, GeneratedExecutable> executables = resolver.executables().stream().collect(Collectors.toMap(GeneratedExecutable::name, e -> e));
+            assertEquals(2, executables.size());
+
+            GeneratedExecutable yes = executables.get("yes");
+            assertFalse(yes.main());
+            assertEquals("Vote for it", yes.description());
+            assertEquals(2, yes.slots());
+            assertEquals(0, yes.contextArgumentIndex());
+            assertTrue(yes.mode().inline());
+            assertEquals(1, yes.parameters().size());
+            assertEquals("weight", yes.parameters().get(0).name());
+            assertEquals(long.class, yes.parameters().get(0).type());
+            assertFalse(yes.parameters().get(0).required());
+            assertArrayEquals(new long[] {1, 2}, yes.parameters().get(0).longChoices());
+
+            GeneratedExecutable no = executables.get("no");
+            assertEquals("No description provided", no.description());
+            assertEquals(1, no.contextArgumentIndex());
+            assertEquals(Ordered.Lane.GUILD, no.mode().lane());
+            assertEquals(List.of("reason", "anonymous"), no.parameters().stream().map(p -> p.name()).toList());
+
+            Object command = commandClass.getDeclaredConstructor().newInstance();
+            CommandArguments arguments = new CommandArguments(3);
+            arguments.set(0, "spam");
+            arguments.setBoolean(2, true);
+            no.invoker().invoke(command, arguments);
+            assertEquals("no spam true", commandClass.getField("last").get(command));
+
+            arguments = new CommandArguments(2);
+            arguments.setLong(1, 2);
+            yes.invoker().invoke(command, arguments);
+            assertEquals("yes 2", commandClass.getField("last").get(command));
+        }
+    }
+
+    @Test
+    public void modalBinderAccessesFieldsWithoutReflection(@TempDir Path directory) throws Exception {
+        Compilation compilation = compile(directory, Map.of("sample.ReportModal", MODAL));
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+        assertTrue(Files.exists(compilation.generated().resolve("sample/ReportModal$$ModalBinder.java")));
+
+        try(URLClassLoader loader = new URLClassLoader(new java.net.URL[] {compilation.classes().toUri().toURL()}, getClass().getClassLoader())) {
+            GeneratedModal binder = (GeneratedModal) loader.loadClass("sample.ReportModal$$ModalBinder").getDeclaredConstructor().newInstance();
+            List<ModalFieldBinding> fields = binder.fields();
+            assertEquals(List.of("title", "details"), fields.stream().map(ModalFieldBinding::id).toList());
+            assertEquals(List.of("title", "body"), fields.stream().map(ModalFieldBinding::fieldName).toList());
+
+            ModalFieldBinding details = fields.get(1);
+            assertEquals("What happened", details.label());
+            assertEquals(TextInputStyle.PARAGRAPH, details.style());
+            assertFalse(details.required());
+            assertEquals("Steps", details.placeholder());
+            assertEquals(50, fields.get(0).maxLength());
+
+            Modal modal = (Modal) loader.loadClass("sample.ReportModal").getDeclaredConstructor().newInstance();
+            ModalFieldImpl value = new ModalFieldImpl();
+            value.setValue("It broke");
+            details.setter().accept(modal, value);
+            assertSame(value, details.getter().apply(modal));
+        }
+    }
+
+    @Test
+    public void invalidCommandMethodsAreReported(@TempDir Path directory) throws Exception {
+        String invalid = """
+                package sample;
+
+                import me.mrfunny.interactionapi.annotation.Subcommand;
+                import me.mrfunny.interactionapi.commands.slash.SlashCommand;
+                import me.mrfunny.interactionapi.commands.slash.SlashCommandInvocation;
+
+                public class BrokenCommand implements SlashCommand {
+                    @Override
+                    public String name() {
+                        return "broken";
+                    }
+
+                    @Subcommand
+                    public void withoutInvocation(String text) {}
+
+                    @Subcommand
+                    public void withFloat(SlashCommandInvocation invocation, float amount) {}
+                }
+                """;
+        Compilation compilation = compile(directory, Map.of("sample.BrokenCommand", invalid));
+        assertFalse(compilation.success());
+        List<String> errors = compilation.messages(Diagnostic.Kind.ERROR);
+        assertTrue(errors.stream().anyMatch(message -> message.contains("SlashCommandInvocation is required")), errors.toString());
+        assertTrue(errors.stream().anyMatch(message -> message.contains("not supported by JDA")), errors.toString());
+        assertFalse(Files.exists(compilation.generated().resolve("sample/BrokenCommand$$InteractionResolver.java")));
+    }
+
+    @Test
+    public void privateModalFieldsAreLeftToReflection(@TempDir Path directory) throws Exception {
+        String modal = MODAL.replace("ModalField title;", "private ModalField title;");
+        Compilation compilation = compile(directory, Map.of("sample.ReportModal", modal));
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+        assertTrue(compilation.messages(Diagnostic.Kind.NOTE).stream().anyMatch(message -> message.contains("is resolved with reflection")));
+        assertFalse(Files.exists(compilation.generated().resolve("sample/ReportModal$$ModalBinder.java")));
+    }
+}